@@ -0,0 +1,106 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.repository.CardBalanceView;
+import com.example.bankcards.repository.CardRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Кэш владельца, баланса и статуса карты для /user/balance. Попадания, промахи и вытеснения
+ * публикуются как метрики cache.* с тегом cache=cardBalance.
+ * Операции, меняющие карту, удаляют запись сразу и ещё раз после коммита, а не записывают новое значение:
+ * afterCommit двух последовательных переводов может выполниться в обратном порядке и вернуть в кэш старый баланс.
+ * Загрузка идёт в потоке вызывающего вне блокировки кэша: удаление записи не ждёт чтения из базы,
+ * которое может само ждать соединения из пула, занятого транзакциями переводов.
+ */
+@Component
+public class CardBalanceCache {
+    private static final String CACHE_NAME = "cardBalance";
+
+    private final CardRepository cardRepository;
+    private final AsyncCache<UUID, CardBalanceView> balances;
+
+    public CardBalanceCache(CardRepository cardRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${cards.balance-cache.max-size}") long maxSize,
+                            @Value("${cards.balance-cache.ttl}") Duration ttl) {
+        this.cardRepository = cardRepository;
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, CACHE_NAME);
+    }
+
+    public CardBalanceView get(UUID cardId) {
+        CompletableFuture<CardBalanceView> loading = new CompletableFuture<>();
+        CompletableFuture<CardBalanceView> balance = balances.get(cardId, (key, executor) -> loading);
+        if (balance == loading) {
+            try {
+                loading.complete(load(cardId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return balance.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void evict(UUID cardId) {
+        evict(List.of(cardId));
+    }
+
+    public void evict(Collection<UUID> cardIds) {
+        List<UUID> keys = List.copyOf(cardIds);
+        balances.synchronous().invalidateAll(keys);
+        afterCommit(() -> balances.synchronous().invalidateAll(keys));
+    }
+
+    /**
+     * Удаляет все карты пользователя, например после удаления самого пользователя.
+     * Незавершённые загрузки тоже удаляются: их владелец ещё неизвестен.
+     */
+    public void evictOwner(UUID ownerId) {
+        evictOwnerNow(ownerId);
+        afterCommit(() -> evictOwnerNow(ownerId));
+    }
+
+    private void evictOwnerNow(UUID ownerId) {
+        balances.asMap().values().removeIf(balance -> !balance.isDone()
+                || !balance.isCompletedExceptionally() && balance.join().ownerId().equals(ownerId));
+    }
+
+    private CardBalanceView load(UUID cardId) {
+        return cardRepository.findBalanceViewByCardId(cardId).orElseThrow(CardNotFoundException::new);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CardEncryptionProperties.class)
+public class CardEncryptionConfig {
+}
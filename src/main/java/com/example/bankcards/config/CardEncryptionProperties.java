@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ключи шифрования номеров карт. Новые номера шифруются ключом currentKeyVersion,
+ * старые версии оставляем в keys, пока есть зашифрованные ими строки.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ConfigurationProperties(prefix = "card-encryption")
+public class CardEncryptionProperties {
+    private int currentKeyVersion;
+    /**
+     * Версия ключа (1-255) -> AES-ключ в Base64 (16, 24 или 32 байта).
+     */
+    private Map<Integer, String> keys = new HashMap<>();
+}
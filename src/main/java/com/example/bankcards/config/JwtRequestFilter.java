@@ -26,21 +26,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwtToken = null;
+        JWTUtils.TokenClaims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwtToken = authHeader.substring(7);
             try {
-                username = jwtUtils.getUsernameFromToken(jwtToken);
+                claims = jwtUtils.getVerifiedClaims(authHeader.substring(7));
             } catch (ExpiredJwtException | SignatureException ignored) {
             }
         }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && claims.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username,
+                    claims.username(),
                     null,
-                    List.of(new SimpleGrantedAuthority(jwtUtils.getRoleFromToken(jwtToken))));
+                    List.of(new SimpleGrantedAuthority(claims.role())));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
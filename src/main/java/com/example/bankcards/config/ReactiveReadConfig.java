@@ -0,0 +1,55 @@
+package com.example.bankcards.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Неблокирующий доступ к той же базе для чтения карт пользователем (cards.read-stack=r2dbc).
+ * Адрес и учётные данные берутся из подключения JDBC, из spring.r2dbc используются только настройки пула.
+ * Пул не публикуется бином ConnectionFactory: иначе DataSourceAutoConfiguration не создаст DataSource для JPA.
+ * Запись по-прежнему идёт через JPA, транзакции R2DBC не используются.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cards.read-stack", havingValue = "r2dbc")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveReadConfig implements DisposableBean {
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveReadDatabaseClient(JdbcConnectionDetails jdbcConnectionDetails,
+                                                     R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(toR2dbcUrl(jdbcConnectionDetails.getJdbcUrl()))
+                .username(jdbcConnectionDetails.getUsername())
+                .password(jdbcConnectionDetails.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                                                    .initialSize(pool.getInitialSize())
+                                                    .maxSize(pool.getMaxSize())
+                                                    .maxIdleTime(pool.getMaxIdleTime())
+                                                    .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    static String toR2dbcUrl(String jdbcUrl) {
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + (query < 0 ? jdbcUrl : jdbcUrl.substring(0, query)).substring("jdbc:".length());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Операторы pg_trgm для JPQL и Criteria. Вызов функции word_similarity(...) индекс не использует,
+ * поэтому условие рендерится оператором, который поддерживают GIN-индексы gin_trgm_ops.
+ * Подключается через META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class TrigramFunctionContributor implements FunctionContributor {
+    /**
+     * word_similar(pattern, text): в text есть слово, похожее на pattern не меньше pg_trgm.word_similarity_threshold.
+     */
+    public static final String WORD_SIMILAR = "word_similar";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                WORD_SIMILAR,
+                "(?1 <% ?2)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Следит через JFR за событиями jdk.VirtualThreadPinned: виртуальный поток заблокировался, не освободив
+ * поток-носитель (synchronized или native-кадр на стеке). Такие блокировки в путях Hibernate/pgjdbc/Hikari
+ * съедают выигрыш от виртуальных потоков, поэтому каждое событие логируется со стеком и считается в метрике
+ * bankcards.virtual-threads.pinned с тегом источника.
+ * Работает только при spring.threads.virtual.enabled=true на Java 21+.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PINNED_METRIC = "bankcards.virtual-threads.pinned";
+    private static final Map<String, String> SOURCES = Map.of(
+            "org.hibernate.", "hibernate",
+            "org.postgresql.", "pgjdbc",
+            "com.zaxxer.hikari.", "hikari",
+            "com.example.bankcards.", "application");
+    private static final String OTHER_SOURCE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final int loggedFrames;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning.threshold}") Duration threshold,
+                                       @Value("${virtual-threads.pinning.logged-frames}") int loggedFrames) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.loggedFrames = loggedFrames;
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ?
+                List.of() :
+                event.getStackTrace().getFrames();
+        String source = source(frames);
+        Counter.builder(PINNED_METRIC)
+                .description("Блокировки виртуальных потоков с удержанием потока-носителя")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Виртуальный поток удерживал поток-носитель {} мс, источник {}:\n{}",
+                 event.getDuration().toMillis(), source, format(event.getStackTrace()));
+    }
+
+    private static String source(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> entry : SOURCES.entrySet()) {
+                if (type.startsWith(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return OTHER_SOURCE;
+    }
+
+    private String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tстек недоступен";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(loggedFrames)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
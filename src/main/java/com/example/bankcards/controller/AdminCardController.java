@@ -2,18 +2,25 @@ package com.example.bankcards.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.example.bankcards.dto.request.BatchCardRequestDto;
 import com.example.bankcards.dto.request.CardInfoRequestDto;
+import com.example.bankcards.dto.request.CardNumberRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
 import com.example.bankcards.exception.handler.CustomErrorResponse;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.CardTransactionService;
+import com.example.bankcards.util.NdjsonStreams;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.UUID;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,8 +32,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @RestController
 @RequiredArgsConstructor
@@ -34,6 +43,8 @@ import java.util.List;
 @Tag(name = "API для работы с картами. Роль - администратор.")
 public class AdminCardController {
     private final AdminCardService adminCardService;
+    private final CardTransactionService cardTransactionService;
+    private final NdjsonStreams ndjsonStreams;
 
     @Operation(summary = "Поиск карты по id.")
     @ApiResponse(
@@ -64,18 +75,97 @@ public class AdminCardController {
         return new ResponseEntity<>(adminCardService.getCardInformationById(cardId), HttpStatus.OK);
     }
 
-    @Operation(summary = "Поиск всех карт.")
+    @Operation(summary = "Поиск карты по номеру.",
+            description = "Номер передаётся в теле запроса, чтобы не попадать в URL и журналы доступа.")
     @ApiResponse(
             responseCode = "200",
-            description = "Список всех карт успешно получен",
+            description = "Информация о карте успешно получена",
             content = @Content(
                     mediaType = "application/json",
-                    array = @ArraySchema(schema = @Schema(implementation = AdminCardInfoResponseDto.class))
+                    schema = @Schema(implementation = AdminCardInfoResponseDto.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Карта не найдена в базе данных",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @PostMapping("/by-number")
+    public ResponseEntity<AdminCardInfoResponseDto> getCardInformationByNumber(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Номер карты",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CardNumberRequestDto.class)
+                    )
+            )
+            @Validated @RequestBody CardNumberRequestDto cardNumberRequestDto) {
+        return new ResponseEntity<>(adminCardService.getCardInformationByNumber(cardNumberRequestDto.getCardNumber()),
+                                    HttpStatus.OK);
+    }
+
+    @Operation(summary = "Постраничный поиск карт с фильтрами.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Страница карт успешно получена",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = AdminCardsResponseDto.class)
             )
     )
     @GetMapping("/all")
-    public ResponseEntity<List<AdminCardInfoResponseDto>> getAllCardsInformation() {
-        return new ResponseEntity<>(adminCardService.getAllCards(), HttpStatus.OK);
+    public ResponseEntity<AdminCardsResponseDto> getAllCardsInformation(
+            @Parameter(description = "ID владельца карты", example = "123e4567-e89b-12d3-a456-426614174000")
+            @RequestParam(required = false) @UUID String userId,
+
+            @Parameter(description = "Дата начала фильтрации по сроку действия карты", example = "2025-01-01")
+            @RequestParam(required = false) LocalDate expireFrom,
+
+            @Parameter(description = "Дата окончания фильтрации по сроку действия карты", example = "2025-12-31")
+            @RequestParam(required = false) LocalDate expireTo,
+
+            @Parameter(description = "Статус карты для фильтрации", example = "ACTIVE")
+            @RequestParam(required = false) String cardStatus,
+
+            @Parameter(description = "Минимальный баланс карты", example = "0.00")
+            @RequestParam(required = false) BigDecimal balanceFrom,
+
+            @Parameter(description = "Максимальный баланс карты", example = "100000.00")
+            @RequestParam(required = false) BigDecimal balanceTo,
+
+            @Parameter(description = "Курсор из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы, не больше 100", example = "20")
+            @RequestParam(defaultValue = "20") int pageSize) {
+        return new ResponseEntity<>(adminCardService.getAllCards(userId, expireFrom, expireTo, cardStatus,
+                                                                 balanceFrom, balanceTo, cursor, pageSize), HttpStatus.OK);
+    }
+
+    @Operation(summary = "История операций по карте, от новых к старым. Доступна и для удалённых карт.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Страница истории успешно получена",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CardTransactionsResponseDto.class)
+            )
+    )
+    @GetMapping("/{cardId}/transactions")
+    public ResponseEntity<CardTransactionsResponseDto> getCardTransactions(
+            @Parameter(description = "ID карты", required = true, example = "d78a9c2f-f1d9-4e91-b26a-f84ef053c11a")
+            @PathVariable @UUID String cardId,
+
+            @Parameter(description = "Курсор из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы, не больше 100", example = "20")
+            @RequestParam(defaultValue = "20") int pageSize) {
+        return new ResponseEntity<>(cardTransactionService.getCardHistory(cardId, cursor, pageSize), HttpStatus.OK);
     }
 
     @Operation(summary = "Создание карт.")
@@ -95,6 +185,14 @@ public class AdminCardController {
                     schema = @Schema(implementation = CustomErrorResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "409",
+            description = "Карта с таким номером уже существует",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
     @PostMapping
     public ResponseEntity<AdminCardInfoResponseDto> createCard(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -109,6 +207,40 @@ public class AdminCardController {
         return new ResponseEntity<>(adminCardService.createCard(cardInfoRequestDto), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Пакетный выпуск карт.",
+            description = "Результаты отдаются потоком NDJSON, по строке на карту, частями по мере коммита. " +
+                    "Порядок строк не совпадает с порядком карт в пакете, соответствие - по полю index.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Пакет принят, результаты по каждой карте в теле ответа",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = CardIssueResultInfo.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Пакет пуст, слишком велик или содержит некорректные карты",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> createCards(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Карты для выпуска",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchCardRequestDto.class)
+                    )
+            )
+            @Validated @RequestBody BatchCardRequestDto batchCardRequestDto) {
+        return ndjsonStreams.<CardIssueResultInfo>response(
+                results -> adminCardService.createCards(batchCardRequestDto.getCards(), results));
+    }
+
     @Operation(summary = "Изменение статуса карты.")
     @ApiResponse(
             responseCode = "200",
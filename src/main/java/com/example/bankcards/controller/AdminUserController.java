@@ -7,13 +7,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.example.bankcards.dto.request.BatchUserRequestDto;
 import com.example.bankcards.dto.request.UserInfoRequestDto;
 import com.example.bankcards.dto.response.AdminUserInfoResponseDto;
+import com.example.bankcards.dto.response.AdminUsersResponseDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
 import com.example.bankcards.exception.handler.CustomErrorResponse;
 import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.util.NdjsonStreams;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.UUID;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,7 +28,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -34,6 +41,7 @@ import java.util.List;
 public class AdminUserController {
 
     private final AdminUserService adminUserService;
+    private final NdjsonStreams ndjsonStreams;
 
     @Operation(summary = "Поиск пользователя по id.")
     @ApiResponse(
@@ -63,7 +71,43 @@ public class AdminUserController {
         return new ResponseEntity<>(adminUserService.getUserInformationById(userId), HttpStatus.OK);
     }
 
-    @Operation(summary = "Получение информации по всем пользователям.")
+    @Operation(summary = "Поиск пользователей по началу username и похожему имени, с keyset-пагинацией.",
+            description = "Пользователи отсортированы по username. Имя ищется по похожести слов (pg_trgm), " +
+                    "поэтому находится и с опечаткой. Без фильтров возвращает всех пользователей постранично.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Страница пользователей успешно получена",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = AdminUsersResponseDto.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Некорректный курсор пагинации",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @GetMapping
+    public ResponseEntity<AdminUsersResponseDto> searchUsers(
+            @Parameter(description = "Начало username, без учёта регистра", example = "user")
+            @RequestParam(required = false) String username,
+
+            @Parameter(description = "Имя или фамилия, допускаются опечатки", example = "Ivanov")
+            @RequestParam(required = false) String name,
+
+            @Parameter(description = "Курсор из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы, не больше 100", example = "20")
+            @RequestParam(defaultValue = "20") int pageSize) {
+        return new ResponseEntity<>(adminUserService.searchUsers(username, name, cursor, pageSize), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Получение информации по всем пользователям.", deprecated = true,
+            description = "Возвращает всю таблицу одним ответом. Используйте постраничный GET /admin/users.")
     @ApiResponse(
             responseCode = "200",
             description = "Список всех пользователей успешно получен",
@@ -100,6 +144,41 @@ public class AdminUserController {
         return new ResponseEntity<>(adminUserService.createUser(userInfoRequestDto), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Пакетный импорт пользователей.",
+            description = "Результаты отдаются потоком NDJSON, по строке на пользователя, частями по мере коммита, " +
+                    "так что по числу полученных строк видно, сколько обработано. " +
+                    "Порядок строк не совпадает с порядком пользователей в пакете, соответствие - по полю index.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Пакет принят, результаты по каждому пользователю в теле ответа",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = UserImportResultInfo.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Пакет пуст, слишком велик или содержит некорректных пользователей",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> createUsers(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Пользователи для импорта",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchUserRequestDto.class)
+                    )
+            )
+            @Validated @RequestBody BatchUserRequestDto batchUserRequestDto) {
+        return ndjsonStreams.<UserImportResultInfo>response(
+                results -> adminUserService.createUsers(batchUserRequestDto.getUsers(), results));
+    }
+
     @Operation(summary = "Изменение данных пользователя.")
     @ApiResponse(
             responseCode = "200",
@@ -160,4 +239,3 @@ public class AdminUserController {
         return new ResponseEntity<>(adminUserService.deleteUser(userId), HttpStatus.OK);
     }
 }
-
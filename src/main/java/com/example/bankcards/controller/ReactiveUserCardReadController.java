@@ -0,0 +1,106 @@
+package com.example.bankcards.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.exception.handler.CustomErrorResponse;
+import com.example.bankcards.service.ReactiveUserCardService;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.validator.constraints.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Чтение карт и баланса на R2DBC: поток сервлета освобождается на время запроса к базе,
+ * ответ отдаётся через асинхронную обработку Spring MVC, поэтому JWT-фильтры и обработчик ошибок общие.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/user")
+@ConditionalOnProperty(name = "cards.read-stack", havingValue = "r2dbc")
+@Tag(name = "API для роли пользователя.")
+public class ReactiveUserCardReadController {
+
+    private final ReactiveUserCardService reactiveUserCardService;
+
+    @Operation(summary = "Параметризованное получение списка карт пользователя.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Список карт пользователя успешно получен",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserCardsResponseDto.class)
+            )
+    )
+    @GetMapping("/all")
+    public Mono<ResponseEntity<UserCardsResponseDto>> getAllCardsInformation(
+            @Parameter(description = "ID пользователя", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+            @RequestHeader @UUID String userId,
+
+            @Parameter(description = "Дата начала фильтрации по сроку действия карты", example = "2025-01-01")
+            @RequestParam(required = false) LocalDate expireFrom,
+
+            @Parameter(description = "Дата окончания фильтрации по сроку действия карты", example = "2025-12-31")
+            @RequestParam(required = false) LocalDate expireTo,
+
+            @Parameter(description = "Статус карты для фильтрации", example = "ACTIVE")
+            @RequestParam(required = false) String cardStatus,
+
+            @Parameter(description = "Номер страницы для пагинации", example = "1")
+            @RequestParam(defaultValue = "1") int page,
+
+            @Parameter(description = "Размер страницы для пагинации", example = "5")
+            @RequestParam(defaultValue = "5") int pageSize,
+
+            @Parameter(description = "Курсор из nextCursor предыдущего ответа. Если указан, параметр page игнорируется")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Посчитать общее количество страниц (дополнительный запрос count)", example = "false")
+            @RequestParam(defaultValue = "false") boolean withTotalPages) {
+        return reactiveUserCardService.getAllCards(userId, expireFrom, expireTo, cardStatus, page, pageSize,
+                                                   cursor, withTotalPages)
+                .map(cards -> new ResponseEntity<>(cards, HttpStatus.OK));
+    }
+
+    @Operation(summary = "Получение баланса карты.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Баланс карты успешно получен",
+            content = @Content(
+                    mediaType = "text/plain;charset=UTF-8",
+                    schema = @Schema(type = "string", example = "15000.00")
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Операция невозможна. Карта не принадлежит этому пользователю или другой сбой.",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @GetMapping(value = "/balance/{cardId}", produces = "text/plain;charset=UTF-8")
+    public Mono<ResponseEntity<String>> getBalance(
+            @Parameter(description = "ID пользователя", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+            @RequestHeader @UUID String userId,
+
+            @Parameter(description = "ID карты", required = true, example = "d78a9c2f-f1d9-4e91-b26a-f84ef053c11a")
+            @PathVariable @UUID String cardId) {
+        return reactiveUserCardService.getBalance(userId, cardId)
+                .map(balance -> new ResponseEntity<>(balance, HttpStatus.OK));
+    }
+}
@@ -6,23 +6,29 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.dto.request.BatchTransferRequestDto;
+import com.example.bankcards.dto.response.BatchTransferResponseDto;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
 import com.example.bankcards.exception.handler.CustomErrorResponse;
+import com.example.bankcards.service.CardTransactionService;
 import com.example.bankcards.service.UserService;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,38 +36,10 @@ import java.time.LocalDate;
 @Tag(name = "API для роли пользователя.")
 public class UserController {
 
-    private final UserService userService;
-
-    @Operation(summary = "Параметризованное получение списка карт пользователя.")
-    @ApiResponse(
-            responseCode = "200",
-            description = "Список карт пользователя успешно получен",
-            content = @Content(
-                    mediaType = "application/json",
-                    schema = @Schema(implementation = UserCardsResponseDto.class)
-            )
-    )
-    @GetMapping("/all")
-    public ResponseEntity<UserCardsResponseDto> getAllCardsInformation(
-            @Parameter(description = "ID пользователя", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
-            @RequestHeader @UUID String userId,
-
-            @Parameter(description = "Дата начала фильтрации по сроку действия карты", example = "2025-01-01")
-            @RequestParam(required = false) LocalDate expireFrom,
-
-            @Parameter(description = "Дата окончания фильтрации по сроку действия карты", example = "2025-12-31")
-            @RequestParam(required = false) LocalDate expireTo,
+    private final static String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
-            @Parameter(description = "Статус карты для фильтрации", example = "ACTIVE")
-            @RequestParam(required = false) String cardStatus,
-
-            @Parameter(description = "Номер страницы для пагинации", example = "1")
-            @RequestParam(defaultValue = "1") int page,
-
-            @Parameter(description = "Размер страницы для пагинации", example = "5")
-            @RequestParam(defaultValue = "5") int pageSize) {
-        return new ResponseEntity<>(userService.getAllCards(userId, expireFrom, expireTo, cardStatus, page, pageSize), HttpStatus.OK);
-    }
+    private final UserService userService;
+    private final CardTransactionService cardTransactionService;
 
     @Operation(summary = "Блокировка карты.")
     @ApiResponse(
@@ -101,7 +79,15 @@ public class UserController {
     )
     @ApiResponse(
             responseCode = "400",
-            description = "Ошибка при переводе: карта не принадлежит пользователю или недостаточно средств",
+            description = "Ошибка при переводе: карта не принадлежит пользователю, не активна или недостаточно средств",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "422",
+            description = "Ключ идемпотентности уже использован для перевода с другими параметрами",
             content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = CustomErrorResponse.class)
@@ -119,34 +105,79 @@ public class UserController {
             @RequestParam @UUID String idCardTo,
 
             @Parameter(description = "Сумма перевода", required = true, example = "1000.00")
-            @RequestParam BigDecimal amount) {
-        return new ResponseEntity<>(userService.transfer(userId, idCardFrom, idCardTo, amount), HttpStatus.OK);
+            @RequestParam BigDecimal amount,
+
+            @Parameter(description = "Ключ идемпотентности: повтор запроса с тем же ключом вернёт сохранённый результат " +
+                    "без повторного перевода", example = "5f0c6a4e-3b1d-4c8e-9a7f-2d6b1e8c4a90")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return new ResponseEntity<>(userService.transfer(userId, idCardFrom, idCardTo, amount, idempotencyKey), HttpStatus.OK);
     }
 
-    @Operation(summary = "Получение баланса карты.")
+    @Operation(summary = "Пакетный перевод средств между своими картами.")
     @ApiResponse(
             responseCode = "200",
-            description = "Баланс карты успешно получен",
+            description = "Пакет обработан, результат указан для каждого перевода",
             content = @Content(
-                    mediaType = "text/plain;charset=UTF-8",
-                    schema = @Schema(type = "string", example = "15000.00")
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BatchTransferResponseDto.class)
             )
     )
     @ApiResponse(
             responseCode = "400",
-            description = "Операция невозможна. Карта не принадлежит этому пользователю или другой сбой.",
+            description = "Пакет пуст, слишком велик или содержит некорректные переводы",
             content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = CustomErrorResponse.class)
             )
     )
-    @GetMapping(value = "/balance/{cardId}", produces = "text/plain;charset=UTF-8")
-    public ResponseEntity<String> getBalance(
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponseDto> transferBatch(
+            @Parameter(description = "ID пользователя", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+            @RequestHeader @UUID String userId,
+
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Список переводов",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchTransferRequestDto.class)
+                    )
+            )
+            @Validated @RequestBody BatchTransferRequestDto batchTransferRequestDto) {
+        return new ResponseEntity<>(userService.transferBatch(userId, batchTransferRequestDto.getTransfers()), HttpStatus.OK);
+    }
+
+    @Operation(summary = "История операций по своей карте, от новых к старым.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Страница истории успешно получена",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CardTransactionsResponseDto.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Карта не принадлежит пользователю или курсор некорректен",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CustomErrorResponse.class)
+            )
+    )
+    @GetMapping("/transactions/{cardId}")
+    public ResponseEntity<CardTransactionsResponseDto> getCardTransactions(
             @Parameter(description = "ID пользователя", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
             @RequestHeader @UUID String userId,
 
             @Parameter(description = "ID карты", required = true, example = "d78a9c2f-f1d9-4e91-b26a-f84ef053c11a")
-            @PathVariable @UUID String cardId) {
-        return new ResponseEntity<>(userService.getBalance(userId, cardId), HttpStatus.OK);
+            @PathVariable @UUID String cardId,
+
+            @Parameter(description = "Курсор из nextCursor предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы, не больше 100", example = "20")
+            @RequestParam(defaultValue = "20") int pageSize) {
+        return new ResponseEntity<>(cardTransactionService.getUserCardHistory(userId, cardId, cursor, pageSize),
+                                    HttpStatus.OK);
     }
 }
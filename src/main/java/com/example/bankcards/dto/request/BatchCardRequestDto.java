@@ -0,0 +1,24 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO пакетного выпуска карт. Роль - Администратор.")
+public class BatchCardRequestDto {
+    @Schema(description = "Список карт для выпуска. Каждая карта проверяется отдельно, ошибки возвращаются в её результате")
+    @NotEmpty(message = "Пакет карт не может быть пустым")
+    @Size(max = 10000, message = "Пакет не может содержать больше 10000 карт")
+    private List<@NotNull(message = "Карта в пакете не может быть null") CardInfoRequestDto> cards;
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO пакета переводов между картами пользователя. Роль - Пользователь.")
+public class BatchTransferRequestDto {
+    @Schema(description = "Список переводов. Выполняются по порядку в одной транзакции")
+    @NotEmpty(message = "Пакет переводов не может быть пустым")
+    @Size(max = 1000, message = "Пакет не может содержать больше 1000 переводов")
+    private List<@Valid TransferInfoRequestDto> transfers;
+}
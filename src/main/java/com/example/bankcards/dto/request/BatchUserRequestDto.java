@@ -0,0 +1,24 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO пакетного импорта пользователей. Роль - Администратор.")
+public class BatchUserRequestDto {
+    @Schema(description = "Список пользователей для импорта")
+    @NotEmpty(message = "Пакет пользователей не может быть пустым")
+    @Size(max = 10000, message = "Пакет не может содержать больше 10000 пользователей")
+    private List<@Valid UserInfoRequestDto> users;
+}
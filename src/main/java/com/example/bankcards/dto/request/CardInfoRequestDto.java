@@ -5,9 +5,9 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.util.annotations.EnumValue;
+import com.example.bankcards.util.annotations.CardNumber;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,11 +22,10 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Schema(description = "DTO запроса на создание новой карты. Роль - Администратор.")
 public class CardInfoRequestDto {
-    @Schema(description = "Номер карты. Должен иметь вид 16 цифр в блоках по 4 разделенных пробелом",
+    @Schema(description = "Номер карты. 16 цифр, блоки по 4 можно разделять пробелом или дефисом. Проверяется контрольная цифра по алгоритму Луна",
             example = "1111 2222 3333 4444")
     @NotBlank(message = "Поле cardNumber не должно быть пустым")
-    @Pattern(regexp = "^\\d{4} \\d{4} \\d{4} \\d{4}$",
-            message = "Номер карты должен выглядеть как 16 цифр в блоках по 4 разделенных пробелом")
+    @CardNumber
     private String cardNumber;
 
     @Schema(description = "id пользователя. Формат UUID",
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import com.example.bankcards.util.annotations.CardNumber;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO запроса на поиск карты по номеру. Роль - Администратор.")
+public class CardNumberRequestDto {
+    @Schema(description = "Номер карты. 16 цифр, блоки по 4 можно разделять пробелом или дефисом",
+            example = "1111 2222 3333 4444")
+    @NotBlank(message = "Поле cardNumber не должно быть пустым")
+    @CardNumber(luhn = false, message = "Номер карты должен состоять из 16 цифр в блоках по 4")
+    private String cardNumber;
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.UUID;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO одного перевода в пакете. Роль - Пользователь.")
+public class TransferInfoRequestDto {
+    @Schema(description = "ID карты-отправителя",
+            example = "d78a9c2f-f1d9-4e91-b26a-f84ef053c11a")
+    @NotNull(message = "Поле idCardFrom обязательно")
+    @UUID(message = "Поле idCardFrom должно быть UUID")
+    private String idCardFrom;
+
+    @Schema(description = "ID карты-получателя",
+            example = "f47ac10b-58cc-4372-a567-0e02b2c3d479")
+    @NotNull(message = "Поле idCardTo обязательно")
+    @UUID(message = "Поле idCardTo должно быть UUID")
+    private String idCardTo;
+
+    @Schema(description = "Сумма перевода",
+            example = "1000.00")
+    @NotNull(message = "Сумма перевода обязательна")
+    @DecimalMin(value = "0.01", message = "Сумма перевода должна быть положительной")
+    private BigDecimal amount;
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO со страницей карт. Роль - Администратор.")
+public class AdminCardsResponseDto {
+    @Schema(description = "Курсор следующей страницы. Отсутствует, если это последняя страница.")
+    private String nextCursor;
+    @Schema(description = "Карты текущей страницы")
+    private List<AdminCardInfoResponseDto> cards;
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO с результатами пакета переводов. Роль - Пользователь.")
+public class BatchTransferResponseDto {
+    @Schema(description = "Количество выполненных переводов")
+    private Integer succeeded;
+    @Schema(description = "Количество отклонённых переводов")
+    private Integer failed;
+    @Schema(description = "Результат по каждому переводу в порядке запроса")
+    private List<TransferResultInfo> results;
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO с результатом выпуска одной карты из пакета. Роль - Администратор.")
+public class CardIssueResultInfo {
+    @Schema(description = "Порядковый номер карты в пакете, начиная с 0")
+    private Integer index;
+    @Schema(description = "ID выпущенной карты")
+    private UUID cardId;
+    @Schema(description = "Выпущена ли карта")
+    private Boolean success;
+    @Schema(description = "Причина отказа, если карта не выпущена")
+    private String error;
+}
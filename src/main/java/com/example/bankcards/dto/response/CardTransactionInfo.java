@@ -0,0 +1,33 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Операция по карте.")
+public class CardTransactionInfo {
+    @Schema(description = "ID операции.")
+    private String transactionId;
+    @Schema(description = "Тип операции.", example = "TRANSFER_OUT")
+    private String operation;
+    @Schema(description = "Сумма операции: отрицательная для списания, положительная для зачисления.",
+            example = "-100.00")
+    private BigDecimal amount;
+    @Schema(description = "Баланс карты после операции.")
+    private BigDecimal balanceAfter;
+    @Schema(description = "ID второй карты перевода. Отсутствует для начального баланса.")
+    private String counterpartCardId;
+    @Schema(description = "ID перевода, общий для списания и зачисления.")
+    private String transferId;
+    @Schema(description = "Время операции.")
+    private OffsetDateTime createdAt;
+}
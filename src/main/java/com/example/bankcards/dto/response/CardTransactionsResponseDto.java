@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO со страницей истории операций по карте, от новых к старым.")
+public class CardTransactionsResponseDto {
+    @Schema(description = "Курсор следующей страницы. Отсутствует, если это последняя страница.")
+    private String nextCursor;
+    @Schema(description = "Операции по карте.")
+    private List<CardTransactionInfo> transactions;
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO с результатом одного перевода из пакета. Роль - Пользователь.")
+public class TransferResultInfo {
+    @Schema(description = "Порядковый номер перевода в пакете, начиная с 0")
+    private Integer index;
+    @Schema(description = "ID карты-отправителя")
+    private String idCardFrom;
+    @Schema(description = "ID карты-получателя")
+    private String idCardTo;
+    @Schema(description = "Сумма перевода")
+    private BigDecimal amount;
+    @Schema(description = "Выполнен ли перевод")
+    private Boolean success;
+    @Schema(description = "Причина отказа, если перевод не выполнен")
+    private String error;
+}
@@ -14,8 +14,10 @@ import java.util.List;
 @NoArgsConstructor
 @Schema(description = "DTO с информацией по всем картам пользователя. Роль - Пользователь.")
 public class UserCardsResponseDto {
-    @Schema(description = "Количество страниц(для фронта).")
+    @Schema(description = "Количество страниц(для фронта). Заполняется только при withTotalPages=true.")
     private Integer totalPages;
+    @Schema(description = "Курсор следующей страницы. Отсутствует, если это последняя страница.")
+    private String nextCursor;
     @Schema(description = "DTO с информацией по карте. Роль - Пользователь. Список карт")
     private List<UserCardInfo> cards;
 }
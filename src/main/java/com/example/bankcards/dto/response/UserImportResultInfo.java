@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO с результатом импорта одного пользователя из пакета. Роль - Администратор.")
+public class UserImportResultInfo {
+    @Schema(description = "Порядковый номер пользователя в пакете, начиная с 0")
+    private Integer index;
+    @Schema(description = "ID созданного пользователя")
+    private UUID userId;
+    @Schema(description = "Создан ли пользователь")
+    private Boolean success;
+    @Schema(description = "Причина отказа, если пользователь не создан")
+    private String error;
+}
@@ -1,7 +1,10 @@
 package com.example.bankcards.entity;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -11,7 +14,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import com.example.bankcards.entity.converter.CardNumberConverter;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.listener.CardNumberListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -19,7 +24,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
-import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -34,19 +39,30 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "cards")
+@DynamicUpdate
+@EntityListeners(CardNumberListener.class)
 public class Card {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "card_id")
     private UUID cardId;
 
-    @ColumnTransformer(
-            read = "pgp_sym_decrypt(card_number, current_setting('encryption.key'))",
-            write = "pgp_sym_encrypt(?::text, current_setting('encryption.key'))"
-    )
-    @Column(name = "card_number", columnDefinition = "bytea", nullable = false)
+    @Convert(converter = CardNumberConverter.class)
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "card_number", columnDefinition = "bytea", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String cardNumber;
 
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "card_number_hash", columnDefinition = "bytea", nullable = false, unique = true, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] cardNumberHash;
+
+    @Column(name = "card_number_last4", length = 4, nullable = false, updatable = false)
+    private String cardNumberLast4;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
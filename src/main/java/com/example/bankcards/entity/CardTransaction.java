@@ -0,0 +1,67 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.CardTransactionType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Запись журнала движения средств по карте. Журнал только дополняется: сумма amount по карте равна её балансу.
+ * Таблица секционирована по месяцам created_at, карта хранится без внешнего ключа,
+ * чтобы история переживала удаление карты.
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "card_transactions")
+public class CardTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "card_id", nullable = false)
+    private UUID cardId;
+
+    @Column(name = "counterpart_card_id")
+    private UUID counterpartCardId;
+
+    @Column(name = "transfer_id")
+    private UUID transferId;
+
+    @Column(name = "operation", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private CardTransactionType operation;
+
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", precision = 15, scale = 2, nullable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
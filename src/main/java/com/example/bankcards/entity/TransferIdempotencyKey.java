@@ -0,0 +1,59 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Отпечаток и результат перевода, выполненного с заголовком Idempotency-Key.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transfer_idempotency_keys")
+public class TransferIdempotencyKey {
+    @EmbeddedId
+    private Id id;
+
+    @Column(name = "request_hash", columnDefinition = "bytea", nullable = false)
+    @ToString.Exclude
+    private byte[] requestHash;
+
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Embeddable
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Id implements Serializable {
+        @Column(name = "user_id")
+        private UUID userId;
+
+        @Column(name = "idempotency_key", length = 255)
+        private String idempotencyKey;
+    }
+}
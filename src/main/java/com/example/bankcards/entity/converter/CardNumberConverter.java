@@ -0,0 +1,25 @@
+package com.example.bankcards.entity.converter;
+
+import com.example.bankcards.util.CardNumberCipher;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Шифрует номер карты в приложении, база хранит только шифротекст. Создаётся Hibernate через контейнер бинов Spring.
+ */
+@Converter
+@RequiredArgsConstructor
+public class CardNumberConverter implements AttributeConverter<String, byte[]> {
+    private final CardNumberCipher cardNumberCipher;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String cardNumber) {
+        return cardNumber == null ? null : cardNumberCipher.encrypt(cardNumber);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] encrypted) {
+        return encrypted == null ? null : cardNumberCipher.decrypt(encrypted);
+    }
+}
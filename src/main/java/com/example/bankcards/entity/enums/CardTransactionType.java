@@ -0,0 +1,7 @@
+package com.example.bankcards.entity.enums;
+
+public enum CardTransactionType {
+    OPENING_BALANCE,
+    TRANSFER_OUT,
+    TRANSFER_IN
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.entity.listener;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.CardNumberHasher;
+import com.example.bankcards.util.Pan;
+import jakarta.persistence.PrePersist;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Заполняет производные от номера карты колонки (слепой индекс и последние 4 цифры) при создании карты:
+ * номер карты после создания не меняется. Создаётся Hibernate через контейнер бинов Spring.
+ */
+@RequiredArgsConstructor
+public class CardNumberListener {
+    private final CardNumberHasher cardNumberHasher;
+
+    @PrePersist
+    public void fillDerivedColumns(Card card) {
+        card.setCardNumberHash(cardNumberHasher.hash(card.getCardNumber()));
+        card.setCardNumberLast4(Pan.lastFour(card.getCardNumber()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.exception;
+
+public class CardAlreadyExistsException extends RuntimeException {
+    private final static String DEFAULT_MESSAGE = "Карта с таким номером уже существует";
+
+    public CardAlreadyExistsException() {
+        super(DEFAULT_MESSAGE);
+    }
+}
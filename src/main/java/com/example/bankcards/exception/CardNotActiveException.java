@@ -0,0 +1,9 @@
+package com.example.bankcards.exception;
+
+public class CardNotActiveException extends RuntimeException {
+    private static final String DEFAULT_MESSAGE = "Перевод возможен только между активными картами с действующим сроком";
+
+    public CardNotActiveException() {
+        super(DEFAULT_MESSAGE);
+    }
+}
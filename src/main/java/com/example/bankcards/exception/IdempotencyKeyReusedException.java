@@ -0,0 +1,9 @@
+package com.example.bankcards.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    private static final String DEFAULT_MESSAGE = "Ключ идемпотентности уже использован для перевода с другими параметрами";
+
+    public IdempotencyKeyReusedException() {
+        super(DEFAULT_MESSAGE);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.exception;
+
+public class UserAlreadyExistsException extends RuntimeException {
+    private final static String DEFAULT_MESSAGE = "Пользователь с таким username уже существует";
+
+    public UserAlreadyExistsException() {
+        super(DEFAULT_MESSAGE);
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.bankcards.exception.handler;
 
+import com.example.bankcards.exception.CardAlreadyExistsException;
+import com.example.bankcards.exception.CardNotActiveException;
 import com.example.bankcards.exception.CardNotBelongsToUserException;
 import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
 import com.example.bankcards.exception.NotEnoughMoneyException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.exception.WrongCardStatusException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -22,11 +29,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ControllersExceptionHandler {
     private final static String WRONG_LOGIN_PASSWORD = "Неверный логин или пароль";
+    private final static String CONCURRENT_OPERATION = "Карта занята другой операцией, повторите попытку позже";
+    private final static String HANDLED_EXCEPTIONS = "bankcards.exceptions.handled";
+
+    private final MeterRegistry meterRegistry;
 
     @ExceptionHandler({
             CardNotFoundException.class,
             UserNotFoundException.class})
     public ResponseEntity<CustomErrorResponse> handleNotFoundException(Exception e, WebRequest request) {
+        countHandled(e);
         CustomErrorResponse errorResponse = new CustomErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND, request);
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
@@ -34,8 +46,9 @@ public class ControllersExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<CustomErrorResponse> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException e, WebRequest request) {
+        countHandled(e);
         String message = e.getBindingResult().getAllErrors().stream()
-                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .map(ControllersExceptionHandler::describe)
                 .collect(Collectors.joining("; ", "", "."));
 
         CustomErrorResponse errorResponse = new CustomErrorResponse(message, HttpStatus.BAD_REQUEST, request);
@@ -45,8 +58,10 @@ public class ControllersExceptionHandler {
     @ExceptionHandler({
             WrongCardStatusException.class,
             CardNotBelongsToUserException.class,
+            CardNotActiveException.class,
             NotEnoughMoneyException.class})
     public ResponseEntity<CustomErrorResponse> handleWrongStatusException(Exception e, WebRequest request) {
+        countHandled(e);
         CustomErrorResponse errorResponse = new CustomErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
@@ -55,13 +70,54 @@ public class ControllersExceptionHandler {
             IllegalArgumentException.class,
             HttpMessageNotReadableException.class})
     public ResponseEntity<CustomErrorResponse> handleIllegalArgumentException(Exception e, WebRequest request) {
+        countHandled(e);
         CustomErrorResponse errorResponse = new CustomErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<CustomErrorResponse> handleConcurrencyFailureException(ConcurrencyFailureException e, WebRequest request) {
+        countHandled(e);
+        CustomErrorResponse errorResponse = new CustomErrorResponse(CONCURRENT_OPERATION, HttpStatus.CONFLICT, request);
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(CardAlreadyExistsException.class)
+    public ResponseEntity<CustomErrorResponse> handleCardAlreadyExistsException(Exception e, WebRequest request) {
+        countHandled(e);
+        CustomErrorResponse errorResponse = new CustomErrorResponse(e.getMessage(), HttpStatus.CONFLICT, request);
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<CustomErrorResponse> handleIdempotencyKeyReusedException(Exception e, WebRequest request) {
+        countHandled(e);
+        CustomErrorResponse errorResponse = new CustomErrorResponse(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY, request);
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler({BadCredentialsException.class})
-    public ResponseEntity<CustomErrorResponse> handleBadCredentialsException(WebRequest request) {
+    public ResponseEntity<CustomErrorResponse> handleBadCredentialsException(BadCredentialsException e, WebRequest request) {
+        countHandled(e);
         CustomErrorResponse errorResponse = new CustomErrorResponse(WRONG_LOGIN_PASSWORD, HttpStatus.UNAUTHORIZED, request);
         return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
     }
+
+    /**
+     * Ошибке элемента списка в запросе добавляется путь (cards[3]), чтобы было видно, какой элемент отклонён.
+     */
+    private static String describe(ObjectError error) {
+        if (error instanceof FieldError fieldError && fieldError.getField().contains("[")) {
+            return fieldError.getField() + ": " + fieldError.getDefaultMessage();
+        }
+        return error.getDefaultMessage();
+    }
+
+    private void countHandled(Exception e) {
+        Counter.builder(HANDLED_EXCEPTIONS)
+                .description("Исключения, обработанные ControllersExceptionHandler")
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
 }
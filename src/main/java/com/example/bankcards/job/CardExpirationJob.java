@@ -0,0 +1,85 @@
+package com.example.bankcards.job;
+
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переводит активные карты с истёкшим сроком в EXPIRED пачками по batch-size строк.
+ * Каждая пачка коммитится отдельно и держит блокировки только своих строк, между пачками выдерживается pause.
+ * Состояние между запусками не хранится: условие выборки само показывает, что осталось,
+ * поэтому после падения следующий запуск продолжает с необработанных карт.
+ * Обработанные строки публикуются в счётчике bankcards.cards.expired, скорость - rate() по нему.
+ */
+@Slf4j
+@Component
+public class CardExpirationJob {
+    private final CardRepository cardRepository;
+    private final CardBalanceCache cardBalanceCache;
+    private final int batchSize;
+    private final Duration pause;
+    private final Counter expiredCards;
+    private final Timer batchTimer;
+
+    public CardExpirationJob(CardRepository cardRepository,
+                             CardBalanceCache cardBalanceCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${cards.expiry.batch-size}") int batchSize,
+                             @Value("${cards.expiry.pause}") Duration pause) {
+        this.cardRepository = cardRepository;
+        this.cardBalanceCache = cardBalanceCache;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.expiredCards = Counter.builder("bankcards.cards.expired")
+                .description("Карты, переведённые в EXPIRED по сроку действия")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("bankcards.cards.expiry.batch")
+                .description("Обработка одной пачки карт с истёкшим сроком")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${cards.expiry.cron}", zone = "UTC")
+    public void expireCards() {
+        long startedAt = System.nanoTime();
+        long total = 0;
+        List<UUID> expired;
+        do {
+            expired = batchTimer.record(() -> cardRepository.expireBatch(batchSize));
+            if (!expired.isEmpty()) {
+                cardBalanceCache.evict(expired);
+                expiredCards.increment(expired.size());
+                total += expired.size();
+            }
+        } while (expired.size() == batchSize && pauseBetweenBatches());
+
+        if (total > 0) {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            log.info("Переведено в EXPIRED карт: {} за {} мс, {} строк/с", total,
+                     TimeUnit.NANOSECONDS.toMillis(elapsedNanos), total * 1_000_000_000L / Math.max(elapsedNanos, 1));
+        }
+    }
+
+    private boolean pauseBetweenBatches() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.bankcards.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Обслуживает месячные секции card_transactions: заранее создаёт секции на months-ahead месяцев вперёд
+ * и отсоединяет секции старше detach-after-months. Отсоединение идёт через DETACH PARTITION CONCURRENTLY,
+ * которое не берёт эксклюзивную блокировку родительской таблицы и не останавливает запись в текущую секцию.
+ * Отсоединённая таблица остаётся в базе для архивации. Прерванное отсоединение завершается при следующем запуске.
+ * Секции по умолчанию (DEFAULT) у таблицы нет: с ней нельзя отсоединять секции CONCURRENTLY. Поэтому запись за месяц
+ * без секции падает, и отсутствие секции на текущий или следующий месяц видно в health как DOWN
+ * ({@link CardTransactionPartitionsHealthIndicator}), а после обслуживания пишется в лог ошибкой.
+ */
+@Slf4j
+@Component
+public class CardTransactionPartitionMaintainer {
+    private static final String PARENT_TABLE = "card_transactions";
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PARTITIONS_QUERY = """
+            SELECT c.relname, i.inhdetachpending
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+                     JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int detachAfterMonths;
+
+    public CardTransactionPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                              @Value("${ledger.partitions.months-ahead}") int monthsAhead,
+                                              @Value("${ledger.partitions.detach-after-months}") int detachAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ledger.partitions.maintenance-cron}", zone = "UTC")
+    public void maintain() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        createPartitions(current);
+        if (detachAfterMonths > 0) {
+            detachPartitionsBefore(current.minusMonths(detachAfterMonths));
+        }
+        List<String> missing = missingPartitions(current);
+        if (!missing.isEmpty()) {
+            log.error("После обслуживания у {} нет секций {}, запись за эти месяцы будет падать", PARENT_TABLE, missing);
+        }
+    }
+
+    public void createPartitions(YearMonth from) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s-01 00:00:00+00') TO ('%s-01 00:00:00+00')",
+                    partitionName(month), PARENT_TABLE, month, month.plusMonths(1)));
+        }
+    }
+
+    /**
+     * Возвращает имена отсутствующих секций за месяц from и следующий за ним. Секция, которая отсоединяется,
+     * считается отсутствующей.
+     */
+    public List<String> missingPartitions(YearMonth from) {
+        Set<String> attached = partitions().stream()
+                .filter(partition -> !partition.detachPending())
+                .map(Partition::name)
+                .collect(Collectors.toSet());
+        return Stream.of(from, from.plusMonths(1))
+                .map(CardTransactionPartitionMaintainer::partitionName)
+                .filter(name -> !attached.contains(name))
+                .toList();
+    }
+
+    /**
+     * Отсоединяет секции за месяцы раньше oldestKept. DETACH ... CONCURRENTLY нельзя выполнять в транзакции,
+     * поэтому каждая команда идёт отдельным запросом в режиме autocommit.
+     */
+    public void detachPartitionsBefore(YearMonth oldestKept) {
+        for (Partition partition : partitions()) {
+            YearMonth month = partitionMonth(partition.name());
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            String mode = partition.detachPending() ? "FINALIZE" : "CONCURRENTLY";
+            try {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s %s",
+                                                   PARENT_TABLE, partition.name(), mode));
+                log.info("Секция {} отсоединена от {}", partition.name(), PARENT_TABLE);
+            } catch (DataAccessException e) {
+                log.warn("Не удалось отсоединить секцию {}, повтор при следующем запуске", partition.name(), e);
+            }
+        }
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.query(PARTITIONS_QUERY,
+                                  (rs, rowNum) -> new Partition(rs.getString(1), rs.getBoolean(2)),
+                                  PARENT_TABLE);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    private static YearMonth partitionMonth(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record Partition(String name, boolean detachPending) {
+    }
+}
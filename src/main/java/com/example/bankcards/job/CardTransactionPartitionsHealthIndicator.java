@@ -0,0 +1,32 @@
+package com.example.bankcards.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * DOWN, если у card_transactions нет секции на текущий или следующий месяц. Секции создаются заранее
+ * на ledger.partitions.months-ahead месяцев, так что DOWN означает, что обслуживание не проходит уже давно,
+ * и переводы начнут падать не позже начала следующего месяца.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardTransactionPartitionsHealthIndicator implements HealthIndicator {
+    private final CardTransactionPartitionMaintainer maintainer;
+
+    @Override
+    public Health health() {
+        List<String> missing = maintainer.missingPartitions(YearMonth.now(ZoneOffset.UTC));
+        if (missing.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.down()
+                .withDetail("missingPartitions", missing)
+                .build();
+    }
+}
@@ -4,16 +4,20 @@ import com.example.bankcards.dto.request.CardInfoRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.Pan;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", imports = {CardStatus.class})
+@Mapper(componentModel = "spring", imports = {CardStatus.class, Pan.class})
 public interface CardMapperForAdmin {
     @Mapping(target = "firstAndLastName", expression = "java(card.getUser().getFirstAndLastName())")
     AdminCardInfoResponseDto toFullCardInfoResponseDto(Card card);
 
     @Mapping(target = "cardId", ignore = true)
     @Mapping(target = "user", ignore = true)
+    @Mapping(target = "cardNumberHash", ignore = true)
+    @Mapping(target = "cardNumberLast4", ignore = true)
+    @Mapping(target = "cardNumber", expression = "java(Pan.normalize(cardInfoRequestDto.getCardNumber()))")
     @Mapping(target = "cardStatus", expression = "java(CardStatus.valueOf(cardInfoRequestDto.getCardStatus()))")
     Card toCard(CardInfoRequestDto cardInfoRequestDto);
 }
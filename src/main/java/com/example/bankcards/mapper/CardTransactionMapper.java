@@ -0,0 +1,18 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.response.CardTransactionInfo;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+import com.example.bankcards.entity.CardTransaction;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface CardTransactionMapper {
+    @Mapping(target = "nextCursor", source = "nextCursor")
+    @Mapping(target = "transactions", source = "transactions")
+    CardTransactionsResponseDto toResponseDto(String nextCursor, List<CardTransaction> transactions);
+
+    CardTransactionInfo toCardTransactionInfo(CardTransaction transaction);
+}
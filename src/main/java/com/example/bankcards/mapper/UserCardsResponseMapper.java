@@ -12,8 +12,9 @@ import java.util.List;
 @Mapper(componentModel = "spring", uses = {CardMapperForUser.class}, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface UserCardsResponseMapper {
     @Mapping(target = "totalPages", source = "totalPages")
+    @Mapping(target = "nextCursor", source = "nextCursor")
     @Mapping(target = "cards", source = "cards")
-    UserCardsResponseDto toResponseDto(Integer totalPages, List<Card> cards);
+    UserCardsResponseDto toResponseDto(Integer totalPages, String nextCursor, List<Card> cards);
 
     List<UserCardInfo> fromCardsToUserCardInfos(List<Card> cards);
 }
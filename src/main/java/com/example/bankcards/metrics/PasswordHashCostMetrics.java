@@ -0,0 +1,43 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.RehashingBCryptPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Распределение паролей в users по стоимости BCrypt: bankcards.password.hash.users с тегом cost
+ * (unknown - не BCrypt-хеш) и текущая стоимость новых хешей bankcards.password.bcrypt.cost.
+ * Распределение считается одним запросом по всей таблице, поэтому только при старте: перехеширования после старта
+ * видны в счётчике bankcards.password.rehashed из {@link com.example.bankcards.service.impl.UserDetailsServiceCustomImpl}.
+ */
+@Component
+public class PasswordHashCostMetrics {
+    private final UserRepository userRepository;
+    private final MultiGauge usersByCost;
+
+    public PasswordHashCostMetrics(UserRepository userRepository,
+                                   RehashingBCryptPasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.usersByCost = MultiGauge.builder("bankcards.password.hash.users")
+                .description("Пользователи по стоимости BCrypt-хеша пароля")
+                .register(meterRegistry);
+        Gauge.builder("bankcards.password.bcrypt.cost", passwordEncoder::getCost)
+                .description("Стоимость BCrypt для новых и перехешируемых паролей")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void snapshot() {
+        usersByCost.register(userRepository.countUsersByPasswordCost()
+                                     .stream()
+                                     .map(row -> MultiGauge.Row.of(Tags.of("cost", row.getCost()), row.getUsers()))
+                                     .toList(), true);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.config.CardEncryptionProperties;
+import com.example.bankcards.util.CardNumberCipher;
+import liquibase.Scope;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Основа миграций номеров карт: построчно обновляет карты JDBC-батчами и читает ключи из spring.liquibase.parameters.
+ * Ключи читаются при выполнении, а не передаются параметрами customChange: параметры входят в контрольную сумму
+ * changeSet, и смена или ротация ключа ломала бы валидацию уже применённых миграций.
+ */
+abstract class AbstractCardNumberMigration implements CustomTaskChange {
+    private static final int BATCH_SIZE = 500;
+
+    private int migratedCards;
+
+    @Override
+    public String getConfirmationMessage() {
+        return getClass().getSimpleName() + ": обработано карт " + migratedCards;
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+
+    /**
+     * Значение параметра changelog выполняемого changeSet.
+     */
+    protected static String parameter(String name) throws CustomChangeException {
+        ChangeSet changeSet = Scope.getCurrentScope().get(Scope.Attr.changeSet.name(), ChangeSet.class);
+        Object value = changeSet == null ?
+                null :
+                changeSet.getChangeLogParameters().getValue(name, changeSet.getChangeLog());
+        if (value == null) {
+            throw new CustomChangeException("Не задан параметр spring.liquibase.parameters." + name);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Шифр с текущим ключом из параметров cardEncryptionKeyVersion и cardEncryptionKey.
+     */
+    protected static CardNumberCipher currentCipher() throws CustomChangeException {
+        int keyVersion = Integer.parseInt(parameter("cardEncryptionKeyVersion"));
+        return new CardNumberCipher(new CardEncryptionProperties(keyVersion, Map.of(keyVersion, parameter("cardEncryptionKey"))));
+    }
+
+    /**
+     * Выполняет update для каждой строки select, параметры update заполняет rowUpdate.
+     */
+    protected void updateCards(Database database, String select, String update, RowUpdate rowUpdate,
+                               Object... selectParameters) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement selectStatement = connection.prepareStatement(select);
+             PreparedStatement updateStatement = connection.prepareStatement(update)) {
+            for (int i = 0; i < selectParameters.length; i++) {
+                selectStatement.setObject(i + 1, selectParameters[i]);
+            }
+            selectStatement.setFetchSize(BATCH_SIZE);
+            try (ResultSet cards = selectStatement.executeQuery()) {
+                while (cards.next()) {
+                    rowUpdate.bind(cards, updateStatement);
+                    updateStatement.addBatch();
+                    if (++migratedCards % BATCH_SIZE == 0) {
+                        updateStatement.executeBatch();
+                    }
+                }
+            }
+            updateStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new CustomChangeException("Не удалось обновить номера карт в " + getClass().getSimpleName(), e);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface RowUpdate {
+        void bind(ResultSet row, PreparedStatement update) throws SQLException;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CardNumberHasher;
+import liquibase.database.Database;
+import liquibase.exception.CustomChangeException;
+
+/**
+ * Заполняет card_number_hash для существующих карт: расшифровывает номера pgcrypto-ключом encryptionKey
+ * и считает {@link CardNumberHasher} с ключом cardNumberHmacKey.
+ */
+public class CardNumberHashMigration extends AbstractCardNumberMigration {
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        CardNumberHasher hasher = new CardNumberHasher(parameter("cardNumberHmacKey"));
+        updateCards(database,
+                    "select card_id, pgp_sym_decrypt(card_number, ?) from cards where card_number_hash is null",
+                    "update cards set card_number_hash = ? where card_id = ?",
+                    (card, update) -> {
+                        update.setBytes(1, hasher.hash(card.getString(2)));
+                        update.setObject(2, card.getObject(1));
+                    },
+                    parameter("encryptionKey"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CardNumberCipher;
+import com.example.bankcards.util.Pan;
+import liquibase.database.Database;
+import liquibase.exception.CustomChangeException;
+
+/**
+ * Заполняет card_number_last4 для существующих карт, расшифровывая номера текущим ключом {@link CardNumberCipher}.
+ */
+public class CardNumberLast4Migration extends AbstractCardNumberMigration {
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        CardNumberCipher cipher = currentCipher();
+        updateCards(database,
+                    "select card_id, card_number from cards where card_number_last4 is null",
+                    "update cards set card_number_last4 = ? where card_id = ?",
+                    (card, update) -> {
+                        update.setString(1, Pan.lastFour(cipher.decrypt(card.getBytes(2))));
+                        update.setObject(2, card.getObject(1));
+                    });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.util.CardNumberCipher;
+import liquibase.database.Database;
+import liquibase.exception.CustomChangeException;
+
+/**
+ * Перешифровывает номера карт из pgcrypto (pgp_sym_encrypt) ключом encryptionKey
+ * в формат {@link CardNumberCipher} текущим ключом.
+ */
+public class PgcryptoToAesGcmCardNumberMigration extends AbstractCardNumberMigration {
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        CardNumberCipher cipher = currentCipher();
+        updateCards(database,
+                    "select card_id, pgp_sym_decrypt(card_number, ?) from cards",
+                    "update cards set card_number = ? where card_id = ?",
+                    (card, update) -> {
+                        update.setBytes(1, cipher.encrypt(card.getString(2)));
+                        update.setObject(2, card.getObject(1));
+                    },
+                    parameter("encryptionKey"));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.enums.CardStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Владелец, баланс и статус карты без загрузки Card и User.
+ */
+public record CardBalanceView(UUID ownerId, BigDecimal balance, CardStatus cardStatus) {
+}
@@ -1,10 +1,69 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card> {
+
+    /**
+     * Блокирует строки карт на запись. Строки блокируются в порядке card_id,
+     * поэтому две транзакции, работающие с одними и теми же картами, не могут взаимно заблокироваться.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.cardId in :cardIds order by c.cardId")
+    List<Card> findAllByIdForUpdate(@Param("cardIds") Collection<UUID> cardIds);
+
+    /**
+     * Ограничивает ожидание блокировок строк до конца текущей транзакции (SET LOCAL lock_timeout).
+     * Остальные запросы на том же соединении ждут блокировки без ограничения.
+     */
+    @Query(value = "select set_config('lock_timeout', :lockTimeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("lockTimeout") String lockTimeout);
+
+    @EntityGraph(attributePaths = {"user", "cardNumber"})
+    Optional<Card> findWithUserByCardId(UUID cardId);
+
+    @Query("select new com.example.bankcards.repository.CardBalanceView(c.user.userId, c.balance, c.cardStatus) " +
+            "from Card c where c.cardId = :cardId")
+    Optional<CardBalanceView> findBalanceViewByCardId(@Param("cardId") UUID cardId);
+
+    /**
+     * Переводит в EXPIRED не больше batchSize активных карт с истёкшим сроком и возвращает их id.
+     * Пачка выбирается по частичному индексу idx_cards_active_expiration_date_card_id, карты,
+     * заблокированные переводами, пропускаются и попадут в одну из следующих пачек.
+     */
+    @Transactional
+    @Query(value = """
+            WITH batch AS (SELECT card_id
+                           FROM cards
+                           WHERE card_status = 'ACTIVE' AND expiration_date < current_date
+                           ORDER BY expiration_date, card_id
+                           LIMIT :batchSize
+                           FOR UPDATE SKIP LOCKED)
+            UPDATE cards SET card_status = 'EXPIRED'
+            FROM batch
+            WHERE cards.card_id = batch.card_id
+            RETURNING cards.card_id
+            """, nativeQuery = true)
+    List<UUID> expireBatch(@Param("batchSize") int batchSize);
+
+    boolean existsByCardNumberHash(byte[] cardNumberHash);
+
+    @Query("select c.cardNumberHash from Card c where c.cardNumberHash in :cardNumberHashes")
+    List<byte[]> findExistingCardNumberHashes(@Param("cardNumberHashes") Collection<byte[]> cardNumberHashes);
+
+    @EntityGraph(attributePaths = {"user", "cardNumber"})
+    Optional<Card> findWithUserByCardNumberHash(byte[] cardNumberHash);
 }
@@ -0,0 +1,26 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface CardTransactionRepository extends JpaRepository<CardTransaction, UUID> {
+
+    Slice<CardTransaction> findByCardId(UUID cardId, Pageable pageable);
+
+    /**
+     * Следующая страница истории после курсора при сортировке (created_at, transaction_id) по убыванию.
+     */
+    @Query("select t from CardTransaction t where t.cardId = :cardId and t.createdAt <= :createdAt " +
+            "and (t.createdAt < :createdAt or t.transactionId < :transactionId)")
+    Slice<CardTransaction> findByCardIdBefore(@Param("cardId") UUID cardId,
+                                              @Param("createdAt") OffsetDateTime createdAt,
+                                              @Param("transactionId") UUID transactionId,
+                                              Pageable pageable);
+}
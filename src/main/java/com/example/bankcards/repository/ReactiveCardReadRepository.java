@@ -0,0 +1,110 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.CardCursor;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Чтение карт пользователя через R2DBC. Условия и порядок совпадают с CardFilterSpecification
+ * (hasUserId, hasCardStatus, диапазон expirationDate, isAfter) и сортировкой (expirationDate, cardId),
+ * чтобы курсоры и страницы были взаимозаменяемы с JPA-реализацией и использовали те же индексы.
+ * Возвращает неуправляемые экземпляры Card только с прочитанными колонками.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cards.read-stack", havingValue = "r2dbc")
+public class ReactiveCardReadRepository {
+    private final DatabaseClient databaseClient;
+
+    public Flux<Card> findCards(UUID userId, LocalDate expireFrom, LocalDate expireTo, CardStatus cardStatus,
+                                CardCursor cursor, int limit, long offset) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("""
+                select card_id, card_number_last4, expiration_date, card_status, balance
+                from cards""");
+        appendFilters(sql, parameters, userId, expireFrom, expireTo, cardStatus);
+        if (cursor != null) {
+            sql.append(" and expiration_date >= :cursorDate and (expiration_date > :cursorDate or card_id > :cursorId)");
+            parameters.put("cursorDate", cursor.expirationDate());
+            parameters.put("cursorId", cursor.cardId());
+        }
+        sql.append(" order by expiration_date, card_id limit :limit offset :offset");
+        parameters.put("limit", limit);
+        parameters.put("offset", offset);
+
+        return bind(sql, parameters)
+                .map(row -> Card.builder()
+                        .cardId(row.get("card_id", UUID.class))
+                        .cardNumberLast4(row.get("card_number_last4", String.class))
+                        .expirationDate(row.get("expiration_date", LocalDate.class))
+                        .cardStatus(CardStatus.valueOf(row.get("card_status", String.class)))
+                        .balance(row.get("balance", BigDecimal.class))
+                        .build())
+                .all();
+    }
+
+    public Mono<Long> countCards(UUID userId, LocalDate expireFrom, LocalDate expireTo, CardStatus cardStatus) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("select count(*) from cards");
+        appendFilters(sql, parameters, userId, expireFrom, expireTo, cardStatus);
+
+        return bind(sql, parameters)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Card> findBalanceById(UUID cardId) {
+        return databaseClient.sql("select card_id, user_id, balance from cards where card_id = :cardId")
+                .bind("cardId", cardId)
+                .map(ReactiveCardReadRepository::toBalanceCard)
+                .one();
+    }
+
+    private static Card toBalanceCard(Readable row) {
+        return Card.builder()
+                .cardId(row.get("card_id", UUID.class))
+                .user(User.builder().userId(row.get("user_id", UUID.class)).build())
+                .balance(row.get("balance", BigDecimal.class))
+                .build();
+    }
+
+    private static void appendFilters(StringBuilder sql, Map<String, Object> parameters, UUID userId,
+                                      LocalDate expireFrom, LocalDate expireTo, CardStatus cardStatus) {
+        sql.append(" where user_id = :userId");
+        parameters.put("userId", userId);
+        if (cardStatus != null) {
+            sql.append(" and card_status = :cardStatus");
+            parameters.put("cardStatus", cardStatus.toString());
+        }
+        if (expireFrom != null) {
+            sql.append(" and expiration_date >= :expireFrom");
+            parameters.put("expireFrom", expireFrom);
+        }
+        if (expireTo != null) {
+            sql.append(" and expiration_date <= :expireTo");
+            parameters.put("expireTo", expireTo);
+        }
+    }
+
+    private DatabaseClient.GenericExecuteSpec bind(StringBuilder sql, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+public interface TransferIdempotencyKeyRepository extends JpaRepository<TransferIdempotencyKey, TransferIdempotencyKey.Id> {
+
+    /**
+     * Занимает ключ, если его нет или срок хранения истёк. Возвращает 0, если ключ уже занят:
+     * параллельный запрос с тем же ключом ждёт здесь коммита или отката первой транзакции.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO transfer_idempotency_keys (user_id, idempotency_key, request_hash, expires_at)
+            VALUES (:userId, :idempotencyKey, :requestHash, now() + make_interval(secs => :ttlSeconds))
+            ON CONFLICT (user_id, idempotency_key) DO UPDATE
+                SET request_hash = excluded.request_hash, response = NULL, expires_at = excluded.expires_at
+                WHERE transfer_idempotency_keys.expires_at <= now()
+            """, nativeQuery = true)
+    int claim(@Param("userId") UUID userId,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("requestHash") byte[] requestHash,
+              @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE transfer_idempotency_keys SET response = :response
+            WHERE user_id = :userId AND idempotency_key = :idempotencyKey
+            """, nativeQuery = true)
+    int complete(@Param("userId") UUID userId,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("response") String response);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM transfer_idempotency_keys
+            WHERE (user_id, idempotency_key) IN (SELECT user_id, idempotency_key
+                                                 FROM transfer_idempotency_keys
+                                                 WHERE expires_at <= now()
+                                                 LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("batchSize") int batchSize);
+}
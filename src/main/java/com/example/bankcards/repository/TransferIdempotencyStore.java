@@ -0,0 +1,139 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище ключей идемпотентности переводов: таблица transfer_idempotency_keys и кэш перед ней.
+ * Ключ занимается и ответ сохраняется в транзакции перевода, поэтому повтор запроса либо видит
+ * закоммиченный перевод, либо ждёт первую транзакцию на уникальном индексе и не трогает строки cards.
+ * Сохраняются только успешные переводы: отказ откатывает транзакцию вместе с ключом и повтор выполнится заново.
+ */
+@Slf4j
+@Component
+public class TransferIdempotencyStore {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String REPLAYED_METRIC = "bankcards.transfers.idempotent.replayed";
+    private static final String KEY_DISAPPEARED = "Ключ идемпотентности удалён во время перевода";
+
+    private final TransferIdempotencyKeyRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final int cleanupBatchSize;
+    private final Cache<CacheKey, StoredTransfer> transfers;
+
+    public TransferIdempotencyStore(TransferIdempotencyKeyRepository repository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transfer.idempotency.ttl}") Duration ttl,
+                                    @Value("${transfer.idempotency.cache.max-size}") long cacheMaxSize,
+                                    @Value("${transfer.idempotency.cache.ttl}") Duration cacheTtl,
+                                    @Value("${transfer.idempotency.cleanup.batch-size}") int cleanupBatchSize) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.cleanupBatchSize = cleanupBatchSize;
+        this.transfers = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Отпечаток параметров перевода: повтор ключа с другими картами или суммой отклоняется.
+     */
+    public static byte[] fingerprint(UUID cardFromId, UUID cardToId, BigDecimal amount) {
+        String request = cardFromId + "|" + cardToId + "|" + amount.stripTrailingZeros().toPlainString();
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(request.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Возвращает сохранённый ответ, если перевод с этим ключом уже выполнен. Иначе занимает ключ
+     * в текущей транзакции, и после перевода нужно вызвать {@link #complete}.
+     */
+    public Optional<String> claim(UUID userId, String idempotencyKey, byte[] fingerprint) {
+        CacheKey cacheKey = new CacheKey(userId, idempotencyKey);
+        StoredTransfer cached = transfers.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(replay(cached, fingerprint, "cache"));
+        }
+        if (repository.claim(userId, idempotencyKey, fingerprint, ttl.toSeconds()) == 1) {
+            return Optional.empty();
+        }
+
+        TransferIdempotencyKey stored = repository.findById(new TransferIdempotencyKey.Id(userId, idempotencyKey))
+                .orElseThrow(() -> new ConcurrencyFailureException(KEY_DISAPPEARED));
+        StoredTransfer transfer = new StoredTransfer(stored.getRequestHash(), stored.getResponse());
+        transfers.put(cacheKey, transfer);
+        return Optional.of(replay(transfer, fingerprint, "database"));
+    }
+
+    public void complete(UUID userId, String idempotencyKey, byte[] fingerprint, String response) {
+        repository.complete(userId, idempotencyKey, response);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    transfers.put(new CacheKey(userId, idempotencyKey), new StoredTransfer(fingerprint, response));
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаляет просроченные ключи пачками, каждая пачка в своей транзакции.
+     */
+    @Scheduled(initialDelayString = "${transfer.idempotency.cleanup.interval}",
+            fixedDelayString = "${transfer.idempotency.cleanup.interval}")
+    public void deleteExpired() {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpired(cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        if (total > 0) {
+            log.info("Удалено просроченных ключей идемпотентности: {}", total);
+        }
+    }
+
+    private String replay(StoredTransfer transfer, byte[] fingerprint, String source) {
+        if (!MessageDigest.isEqual(transfer.requestHash(), fingerprint)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        Counter.builder(REPLAYED_METRIC)
+                .description("Повторы переводов, ответ на которые взят из хранилища ключей идемпотентности")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+        return transfer.response();
+    }
+
+    private record CacheKey(UUID userId, String idempotencyKey) {
+    }
+
+    private record StoredTransfer(byte[] requestHash, String response) {
+    }
+}
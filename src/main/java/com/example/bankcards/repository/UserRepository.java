@@ -2,10 +2,44 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
     Optional<User> findByUsername(String username);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Заменяет хеш, только если в базе всё ещё oldHash: смена пароля, закоммиченная после проверки старого хеша,
+     * не перезаписывается. Возвращает число обновлённых строк.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username and u.password = :oldHash")
+    int updatePassword(@Param("username") String username, @Param("oldHash") String oldHash,
+                       @Param("password") String password);
+
+    @Query(value = """
+            SELECT CASE WHEN password LIKE '$2_$__$%' THEN split_part(password, '$', 3) ELSE 'unknown' END AS cost,
+                   count(*) AS users
+            FROM users
+            GROUP BY 1
+            """, nativeQuery = true)
+    List<PasswordCostCount> countUsersByPasswordCost();
+
+    interface PasswordCostCount {
+        String getCost();
+
+        long getUsers();
+    }
 }
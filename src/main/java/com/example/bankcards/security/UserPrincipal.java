@@ -0,0 +1,23 @@
+package com.example.bankcards.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * UserDetails с id пользователя, чтобы после аутентификации не читать пользователя из базы повторно.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class UserPrincipal extends User {
+    private final UUID userId;
+
+    public UserPrincipal(UUID userId, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+    }
+}
@@ -2,17 +2,30 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.CardInfoRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AdminCardService {
     AdminCardInfoResponseDto getCardInformationById(String cardId);
 
+    AdminCardInfoResponseDto getCardInformationByNumber(String cardNumber);
+
     AdminCardInfoResponseDto createCard(CardInfoRequestDto cardInfoRequestDto);
 
+    /**
+     * Выпускает карты пакетом и передаёт результаты в resultsSink частями по мере коммита.
+     */
+    void createCards(List<CardInfoRequestDto> cardInfoRequestDtos, Consumer<List<CardIssueResultInfo>> resultsSink);
+
     String changeStatus(String cardId, String status);
 
     String delete(String cardId);
 
-    List<AdminCardInfoResponseDto> getAllCards();
+    AdminCardsResponseDto getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo, String cardStatus,
+                                      BigDecimal balanceFrom, BigDecimal balanceTo, String cursor, int pageSize);
 }
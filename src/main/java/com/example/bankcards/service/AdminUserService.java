@@ -2,13 +2,18 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.UserInfoRequestDto;
 import com.example.bankcards.dto.response.AdminUserInfoResponseDto;
+import com.example.bankcards.dto.response.AdminUsersResponseDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AdminUserService {
     AdminUserInfoResponseDto getUserInformationById(String userId);
     List<AdminUserInfoResponseDto> getAllUsers();
+    AdminUsersResponseDto searchUsers(String usernamePrefix, String name, String cursor, int pageSize);
     AdminUserInfoResponseDto createUser(UserInfoRequestDto userInfoRequestDto);
+    void createUsers(List<UserInfoRequestDto> userInfoRequestDtos, Consumer<List<UserImportResultInfo>> resultsSink);
     AdminUserInfoResponseDto updateUser(String userId, UserInfoRequestDto userInfoRequestDto);
     String deleteUser(String userId);
 }
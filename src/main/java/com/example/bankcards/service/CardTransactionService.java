@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+
+public interface CardTransactionService {
+
+    CardTransactionsResponseDto getUserCardHistory(String userId, String cardId, String cursor, int pageSize);
+
+    CardTransactionsResponseDto getCardHistory(String cardId, String cursor, int pageSize);
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveUserCardService {
+
+    Mono<UserCardsResponseDto> getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo,
+                                           String cardStatus, int page, int pageSize,
+                                           String cursor, boolean withTotalPages);
+
+    Mono<String> getBalance(String userId, String cardId);
+}
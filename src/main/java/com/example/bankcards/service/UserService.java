@@ -1,18 +1,27 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.request.TransferInfoRequestDto;
+import com.example.bankcards.dto.response.BatchTransferResponseDto;
 import com.example.bankcards.dto.response.UserCardsResponseDto;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface UserService {
 
     UserCardsResponseDto getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo,
-                                     String cardStatus, int page, int pageSize);
+                                     String cardStatus, int page, int pageSize,
+                                     String cursor, boolean withTotalPages);
 
     String block(String userId, String cardId);
 
-    String transfer(String userId, String idCardFrom, String idCardTo, BigDecimal amount);
+    /**
+     * @param idempotencyKey значение заголовка Idempotency-Key или null
+     */
+    String transfer(String userId, String idCardFrom, String idCardTo, BigDecimal amount, String idempotencyKey);
+
+    BatchTransferResponseDto transferBatch(String userId, List<TransferInfoRequestDto> transfers);
 
     String getBalance(String userId, String cardId);
 }
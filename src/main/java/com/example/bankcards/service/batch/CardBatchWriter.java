@@ -0,0 +1,69 @@
+package com.example.bankcards.service.batch;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardAlreadyExistsException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Вставляет новые карты вместе с записями начального баланса через {@link ChunkedBatchWriter}.
+ * Конфликт пачки означает, что карту с таким номером успели создать параллельно.
+ */
+@Component
+public class CardBatchWriter extends ChunkedBatchWriter<Card> {
+    private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+
+    public CardBatchWriter(CardRepository cardRepository,
+                           CardTransactionRepository cardTransactionRepository,
+                           EntityManager entityManager,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${cards.issuance.chunk-size}") int chunkSize,
+                           @Value("${cards.issuance.jdbc-batch-size}") int jdbcBatchSize) {
+        super(entityManager, transactionTemplate, chunkSize, jdbcBatchSize, "Выпуск карт");
+        this.cardRepository = cardRepository;
+        this.cardTransactionRepository = cardTransactionRepository;
+    }
+
+    @Override
+    protected void save(List<Card> chunk) {
+        cardRepository.saveAllAndFlush(chunk);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        cardTransactionRepository.saveAll(chunk.stream()
+                                                  .map(card -> CardTransaction.builder()
+                                                          .cardId(card.getCardId())
+                                                          .operation(CardTransactionType.OPENING_BALANCE)
+                                                          .amount(card.getBalance())
+                                                          .balanceAfter(card.getBalance())
+                                                          .createdAt(now)
+                                                          .build())
+                                                  .toList());
+    }
+
+    @Override
+    protected UUID idOf(Card card) {
+        return card.getCardId();
+    }
+
+    @Override
+    protected void resetId(Card card) {
+        card.setCardId(null);
+    }
+
+    @Override
+    protected String conflictError() {
+        return new CardAlreadyExistsException().getMessage();
+    }
+}
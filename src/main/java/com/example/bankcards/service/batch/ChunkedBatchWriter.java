@@ -0,0 +1,131 @@
+package com.example.bankcards.service.batch;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Основа пакетной записи: вставляет строки пачками по chunk-size, каждая пачка в своей транзакции.
+ * Внутри пачки Hibernate отправляет INSERT-ы JDBC-батчами по jdbc-batch-size, а pgjdbc с reWriteBatchedInserts
+ * склеивает батч в многострочный INSERT. Если пачка нарушила ограничение уникальности (строку успели создать
+ * параллельно), она откатывается и вставляется построчно, чтобы отказ получили только конфликтующие строки.
+ * Ход записи пишется в лог после каждой пачки.
+ */
+@Slf4j
+public abstract class ChunkedBatchWriter<T> {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final String operation;
+
+    protected ChunkedBatchWriter(EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate,
+                                 int chunkSize,
+                                 int jdbcBatchSize,
+                                 String operation) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.operation = operation;
+    }
+
+    /**
+     * Передаёт в onChunk результаты каждой закоммиченной пачки. Позиция в результате - индекс строки в rows.
+     */
+    public void write(List<T> rows, Consumer<List<WriteResult>> onChunk) {
+        long startedAt = System.nanoTime();
+        long written = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, rows.size());
+            List<WriteResult> results = writeChunk(rows, from, to);
+            long created = results.stream().filter(result -> result.error() == null).count();
+            written += created;
+            afterChunk(created);
+            log.info("{}: обработано {} из {}, записано {}", operation, to, rows.size(), written);
+            onChunk.accept(results);
+        }
+
+        if (written > 0) {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            log.info("{}: записано {} за {} мс, {} строк/с", operation, written,
+                     TimeUnit.NANOSECONDS.toMillis(elapsedNanos), written * 1_000_000_000L / Math.max(elapsedNanos, 1));
+        }
+    }
+
+    /**
+     * Подготовка пачки перед вставкой, вне транзакции.
+     */
+    protected void beforeChunk(List<T> chunk) {
+    }
+
+    /**
+     * Вызывается после каждой пачки с числом записанных в ней строк.
+     */
+    protected void afterChunk(long created) {
+    }
+
+    /**
+     * Сохраняет пачку внутри транзакции записи.
+     */
+    protected abstract void save(List<T> chunk);
+
+    protected abstract UUID idOf(T row);
+
+    /**
+     * Сбрасывает id, выданный строке в откаченной транзакции пачки, перед построчной вставкой.
+     */
+    protected abstract void resetId(T row);
+
+    /**
+     * Ошибка для строки, нарушившей ограничение уникальности.
+     */
+    protected abstract String conflictError();
+
+    private List<WriteResult> writeChunk(List<T> rows, int from, int to) {
+        List<T> chunk = rows.subList(from, to);
+        beforeChunk(chunk);
+
+        List<WriteResult> results = new ArrayList<>(chunk.size());
+        try {
+            insert(chunk);
+            for (int position = from; position < to; position++) {
+                results.add(new WriteResult(position, idOf(rows.get(position)), null));
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int position = from; position < to; position++) {
+                results.add(writeOne(position, rows.get(position)));
+            }
+        }
+        return results;
+    }
+
+    private WriteResult writeOne(int position, T row) {
+        resetId(row);
+        try {
+            insert(List.of(row));
+            return new WriteResult(position, idOf(row), null);
+        } catch (DataIntegrityViolationException e) {
+            return new WriteResult(position, null, conflictError());
+        }
+    }
+
+    private void insert(List<T> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            save(chunk);
+        });
+    }
+
+    public record WriteResult(int position, UUID id, String error) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bankcards.service.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отдельный пул для BCrypt-хеширования при импорте пользователей, по потоку на ядро (threads = 0) или threads потоков.
+ * Очередь ограничена queue-capacity: когда она заполнена, задачу хеширует сам вызывающий поток,
+ * поэтому импорт не набирает в памяти больше задач, чем пул успевает обработать, и не отнимает ядра у запросов сверх пула.
+ * Загрузка пула публикуется метриками executor.* с именем bankcards.password.hashing.
+ */
+@Component
+public class PasswordHashingPool {
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingPool(BCryptPasswordEncoder bCryptPasswordEncoder,
+                               MeterRegistry meterRegistry,
+                               @Value("${users.import.hashing.threads}") int threads,
+                               @Value("${users.import.hashing.queue-capacity}") int queueCapacity) {
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(queueCapacity),
+                                               new CustomizableThreadFactory("password-hashing-"),
+                                               (task, pool) -> {
+                                                   if (pool.isShutdown()) {
+                                                       throw new RejectedExecutionException("Пул хеширования паролей остановлен");
+                                                   }
+                                                   task.run();
+                                               });
+        new ExecutorServiceMetrics(executor, "bankcards.password.hashing", List.of()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Хеширует пароли параллельно и возвращает хеши в том же порядке.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = rawPasswords.stream()
+                .map(rawPassword -> CompletableFuture.supplyAsync(() -> bCryptPasswordEncoder.encode(rawPassword), executor))
+                .toList();
+        return hashes.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
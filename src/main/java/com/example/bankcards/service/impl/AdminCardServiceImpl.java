@@ -1,68 +1,236 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
 import com.example.bankcards.dto.request.CardInfoRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardAlreadyExistsException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.mapper.CardMapperForAdmin;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.batch.CardBatchWriter;
+import com.example.bankcards.service.specification.CardFilterSpecification;
+import com.example.bankcards.util.BatchRowValidator;
+import com.example.bankcards.util.CardCursor;
+import com.example.bankcards.util.CardNumberHasher;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminCardServiceImpl implements AdminCardService {
     private final static String SUCCESSFULLY_CHANGE_STATUS = "Статус карты с id %s успешно изменен";
     private final static String DELETED_SUCCESSFULLY = "Карта с ID: %s успешно удалёна";
+    private final static int MAX_PAGE_SIZE = 100;
+    private final static String CARD_OWNER = "user";
+    private final static String CARD_NUMBER = "cardNumber";
+    private final static Sort CARDS_SORT = Sort.by(Sort.Direction.ASC, "expirationDate", "cardId");
 
     private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
     private final UserRepository userRepository;
     private final CardMapperForAdmin mapper;
+    private final CardNumberHasher cardNumberHasher;
+    private final CardBalanceCache cardBalanceCache;
+    private final CardBatchWriter cardBatchWriter;
+    private final BatchRowValidator batchRowValidator;
 
+    @Transactional(readOnly = true)
     @Override
     public AdminCardInfoResponseDto getCardInformationById(String cardId) {
-        return cardRepository.findById(UUID.fromString(cardId))
+        return cardRepository.findWithUserByCardId(UUID.fromString(cardId))
                 .map(mapper::toFullCardInfoResponseDto)
                 .orElseThrow(CardNotFoundException::new);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<AdminCardInfoResponseDto> getAllCards() {
-        return cardRepository.findAll()
-                .stream()
+    public AdminCardInfoResponseDto getCardInformationByNumber(String cardNumber) {
+        return cardRepository.findWithUserByCardNumberHash(cardNumberHasher.hash(cardNumber))
                 .map(mapper::toFullCardInfoResponseDto)
-                .toList();
+                .orElseThrow(CardNotFoundException::new);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public AdminCardsResponseDto getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo, String cardStatus,
+                                             BigDecimal balanceFrom, BigDecimal balanceTo, String cursor, int pageSize) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)), CARDS_SORT);
+        Specification<Card> specification = CardFilterSpecification.hasUserId(userId == null ? null : UUID.fromString(userId))
+                .and(CardFilterSpecification.hasCardStatus(CardFilterSpecification.toCardStatus(cardStatus)))
+                .and(CardFilterSpecification.hasExpirationDateAfterOrEqual(expireFrom))
+                .and(CardFilterSpecification.hasExpirationDateBeforeOrEqual(expireTo))
+                .and(CardFilterSpecification.hasBalanceGreaterThanOrEqual(balanceFrom))
+                .and(CardFilterSpecification.hasBalanceLessThanOrEqual(balanceTo))
+                .and(CardFilterSpecification.isAfter(cursor == null ? null : CardCursor.decode(cursor)));
+
+        Slice<Card> cardsSlice = cardRepository.findBy(specification, query -> query.project(CARD_OWNER, CARD_NUMBER).slice(pageable));
+
+        String nextCursor = cardsSlice.hasNext() ?
+                CardCursor.of(cardsSlice.getContent().get(cardsSlice.getNumberOfElements() - 1)).encode() :
+                null;
+        return AdminCardsResponseDto.builder()
+                .nextCursor(nextCursor)
+                .cards(cardsSlice.map(mapper::toFullCardInfoResponseDto).getContent())
+                .build();
     }
 
+    @Transactional
     @Override
     public AdminCardInfoResponseDto createCard(CardInfoRequestDto cardInfoRequestDto) {
         User user = userRepository.findById(UUID.fromString(cardInfoRequestDto.getUserId()))
                 .orElseThrow(UserNotFoundException::new);
+        if (cardRepository.existsByCardNumberHash(cardNumberHasher.hash(cardInfoRequestDto.getCardNumber()))) {
+            throw new CardAlreadyExistsException();
+        }
         Card card = mapper.toCard(cardInfoRequestDto);
         card.setUser(user);
-        Card savedCard = cardRepository.save(card);
+        Card savedCard;
+        try {
+            savedCard = cardRepository.saveAndFlush(card);
+        } catch (DataIntegrityViolationException e) {
+            throw new CardAlreadyExistsException();
+        }
+        cardTransactionRepository.save(CardTransaction.builder()
+                                               .cardId(savedCard.getCardId())
+                                               .operation(CardTransactionType.OPENING_BALANCE)
+                                               .amount(savedCard.getBalance())
+                                               .balanceAfter(savedCard.getBalance())
+                                               .createdAt(OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS))
+                                               .build());
         return mapper.toFullCardInfoResponseDto(savedCard);
     }
 
+    /**
+     * Строки проверяются по одной через {@link BatchRowValidator}. Владельцы и уже занятые номера корректных строк
+     * читаются двумя запросами на весь пакет. Строки с ошибками валидации, ненайденным владельцем или повторяющимся
+     * номером отклоняются сразу, остальные вставляются через {@link CardBatchWriter}.
+     */
+    @Timed(value = "bankcards.cards.create.batch", description = "Пакетный выпуск карт", histogram = true)
+    @Override
+    public void createCards(List<CardInfoRequestDto> cardInfoRequestDtos, Consumer<List<CardIssueResultInfo>> resultsSink) {
+        List<CardIssueResultInfo> rejected = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>(cardInfoRequestDtos.size());
+        for (int i = 0; i < cardInfoRequestDtos.size(); i++) {
+            String error = batchRowValidator.validate(cardInfoRequestDtos.get(i));
+            if (error == null) {
+                validIndexes.add(i);
+            } else {
+                rejected.add(CardIssueResultInfo.builder().index(i).success(false).error(error).build());
+            }
+        }
+
+        Map<UUID, User> owners = userRepository.findAllById(validIndexes.stream()
+                                                                    .map(i -> toUuidOrNull(cardInfoRequestDtos.get(i).getUserId()))
+                                                                    .filter(Objects::nonNull)
+                                                                    .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        List<byte[]> hashes = validIndexes.stream()
+                .map(i -> cardNumberHasher.hash(cardInfoRequestDtos.get(i).getCardNumber()))
+                .toList();
+        Set<ByteBuffer> takenHashes = cardRepository.findExistingCardNumberHashes(hashes)
+                .stream()
+                .map(ByteBuffer::wrap)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Card> cards = new ArrayList<>(validIndexes.size());
+        List<Integer> indexes = new ArrayList<>(validIndexes.size());
+        for (int k = 0; k < validIndexes.size(); k++) {
+            int i = validIndexes.get(k);
+            CardInfoRequestDto cardInfoRequestDto = cardInfoRequestDtos.get(i);
+            try {
+                User user = owners.get(toUuidOrNull(cardInfoRequestDto.getUserId()));
+                if (user == null) {
+                    throw new UserNotFoundException();
+                }
+                if (!takenHashes.add(ByteBuffer.wrap(hashes.get(k)))) {
+                    throw new CardAlreadyExistsException();
+                }
+                Card card = mapper.toCard(cardInfoRequestDto);
+                card.setUser(user);
+                cards.add(card);
+                indexes.add(i);
+            } catch (UserNotFoundException | CardAlreadyExistsException | IllegalArgumentException e) {
+                rejected.add(CardIssueResultInfo.builder().index(i).success(false).error(e.getMessage()).build());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            rejected.sort(Comparator.comparing(CardIssueResultInfo::getIndex));
+            resultsSink.accept(rejected);
+        }
+
+        cardBatchWriter.write(cards, chunk -> resultsSink.accept(
+                chunk.stream()
+                        .map(result -> CardIssueResultInfo.builder()
+                                .index(indexes.get(result.position()))
+                                .cardId(result.id())
+                                .success(result.error() == null)
+                                .error(result.error())
+                                .build())
+                        .toList()));
+    }
+
+    @Transactional
     @Override
     public String changeStatus(String cardId, String status) {
         Card card = cardRepository.findById(UUID.fromString(cardId))
                 .orElseThrow(CardNotFoundException::new);
         card.setCardStatus(CardStatus.valueOf(status.toUpperCase()));
+        cardBalanceCache.evict(card.getCardId());
         return String.format(SUCCESSFULLY_CHANGE_STATUS, cardId);
     }
 
+    @Transactional
     @Override
     public String delete(String cardId) {
-        cardRepository.deleteById(UUID.fromString(cardId));
+        UUID id = UUID.fromString(cardId);
+        cardRepository.deleteById(id);
+        cardBalanceCache.evict(id);
         return String.format(DELETED_SUCCESSFULLY, cardId);
     }
+
+    private static UUID toUuidOrNull(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
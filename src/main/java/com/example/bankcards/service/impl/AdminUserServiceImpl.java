@@ -1,30 +1,52 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
 import com.example.bankcards.dto.request.UserInfoRequestDto;
 import com.example.bankcards.dto.response.AdminUserInfoResponseDto;
+import com.example.bankcards.dto.response.AdminUsersResponseDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.mapper.UserMapperForAdmin;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.service.batch.UserBatchWriter;
+import com.example.bankcards.service.specification.UserFilterSpecification;
+import com.example.bankcards.util.UserCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AdminUserServiceImpl implements AdminUserService {
     private final static String DELETED_SUCCESSFULLY = "Пользователь с ID: %s успешно удалён";
+    private final static int MAX_PAGE_SIZE = 100;
+    private final static Sort USERS_SORT = Sort.by(Sort.Direction.ASC, "username");
 
     private final UserRepository userRepository;
     private final UserMapperForAdmin mapper;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final UserDetailsServiceCustomImpl userDetailsService;
+    private final CardBalanceCache cardBalanceCache;
+    private final UserBatchWriter userBatchWriter;
 
 
     private Optional<User> findById(String userId) {
@@ -46,6 +68,25 @@ public class AdminUserServiceImpl implements AdminUserService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public AdminUsersResponseDto searchUsers(String usernamePrefix, String name, String cursor, int pageSize) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)), USERS_SORT);
+        Specification<User> specification = UserFilterSpecification.hasUsernamePrefix(usernamePrefix)
+                .and(UserFilterSpecification.hasNameSimilarTo(name))
+                .and(UserFilterSpecification.isAfter(cursor == null ? null : UserCursor.decode(cursor)));
+
+        Slice<User> usersSlice = userRepository.findBy(specification, query -> query.slice(pageable));
+
+        String nextCursor = usersSlice.hasNext() ?
+                UserCursor.of(usersSlice.getContent().get(usersSlice.getNumberOfElements() - 1)).encode() :
+                null;
+        return AdminUsersResponseDto.builder()
+                .nextCursor(nextCursor)
+                .users(usersSlice.map(mapper::entityToDto).getContent())
+                .build();
+    }
+
     @Override
     public AdminUserInfoResponseDto createUser(UserInfoRequestDto userInfoRequestDto) {
         User user = mapper.dtoToEntity(userInfoRequestDto);
@@ -55,6 +96,44 @@ public class AdminUserServiceImpl implements AdminUserService {
         return mapper.entityToDto(savedUser);
     }
 
+    @Timed(value = "bankcards.users.create.batch", description = "Пакетный импорт пользователей", histogram = true)
+    @Override
+    public void createUsers(List<UserInfoRequestDto> userInfoRequestDtos, Consumer<List<UserImportResultInfo>> resultsSink) {
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                userInfoRequestDtos.stream()
+                        .map(UserInfoRequestDto::getUsername)
+                        .toList()));
+
+        List<UserImportResultInfo> rejected = new ArrayList<>();
+        List<User> users = new ArrayList<>(userInfoRequestDtos.size());
+        List<Integer> indexes = new ArrayList<>(userInfoRequestDtos.size());
+        for (int i = 0; i < userInfoRequestDtos.size(); i++) {
+            UserInfoRequestDto userInfoRequestDto = userInfoRequestDtos.get(i);
+            try {
+                if (!takenUsernames.add(userInfoRequestDto.getUsername())) {
+                    throw new UserAlreadyExistsException();
+                }
+                users.add(mapper.dtoToEntity(userInfoRequestDto));
+                indexes.add(i);
+            } catch (UserAlreadyExistsException e) {
+                rejected.add(UserImportResultInfo.builder().index(i).success(false).error(e.getMessage()).build());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            resultsSink.accept(rejected);
+        }
+
+        userBatchWriter.write(users, chunk -> resultsSink.accept(
+                chunk.stream()
+                        .map(result -> UserImportResultInfo.builder()
+                                .index(indexes.get(result.position()))
+                                .userId(result.id())
+                                .success(result.error() == null)
+                                .error(result.error())
+                                .build())
+                        .toList()));
+    }
+
     @Transactional
     @Override
     public AdminUserInfoResponseDto updateUser(String userId, UserInfoRequestDto userInfoRequestDto) {
@@ -64,6 +143,7 @@ public class AdminUserServiceImpl implements AdminUserService {
                     user.setUsername(userInfoRequestDto.getUsername());
                     user.setPassword(userInfoRequestDto.getPassword());
                     user.setRole(UserRole.valueOf(userInfoRequestDto.getRole()));
+                    userDetailsService.evictUser(user.getUserId());
                     return mapper.entityToDto(userRepository.save(user));
                 })
                 .orElseThrow(UserNotFoundException::new);
@@ -72,6 +152,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Override
     public String deleteUser(String userId) {
         userRepository.deleteById(UUID.fromString(userId));
+        userDetailsService.evictUser(UUID.fromString(userId));
+        cardBalanceCache.evictOwner(UUID.fromString(userId));
         return String.format(DELETED_SUCCESSFULLY, userId);
     }
 }
\ No newline at end of file
@@ -2,37 +2,32 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.request.JwtRequestDto;
 import com.example.bankcards.dto.response.JwtResponseDto;
-import com.example.bankcards.entity.User;
-import com.example.bankcards.exception.UserNotFoundException;
-import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.AuthService;
 import com.example.bankcards.util.JWTUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
-    private final UserDetailsService userDetailsService;
     private final JWTUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
 
+    @Timed(value = "bankcards.auth.token", description = "Выдача JWT по логину и паролю", histogram = true)
     @Override
-    @Transactional
     public JwtResponseDto createAuthToken(@RequestBody JwtRequestDto authRequest) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(authRequest.getUsername());
-        String token = jwtUtils.generateToken(userDetails);
-        User user = userRepository.findByUsername(userDetails.getUsername()).orElseThrow(UserNotFoundException::new);
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String token = jwtUtils.generateToken(userPrincipal);
 
-        return new JwtResponseDto(user.getUserId().toString(), token);
+        return new JwtResponseDto(userPrincipal.getUserId().toString(), token);
     }
 }
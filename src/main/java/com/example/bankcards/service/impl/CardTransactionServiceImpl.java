@@ -0,0 +1,65 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.mapper.CardTransactionMapper;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.service.CardTransactionService;
+import com.example.bankcards.util.CardTransactionCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CardTransactionServiceImpl implements CardTransactionService {
+    private final static int MAX_PAGE_SIZE = 100;
+    private final static Sort HISTORY_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "transactionId");
+
+    private final CardTransactionRepository cardTransactionRepository;
+    private final CardTransactionMapper cardTransactionMapper;
+    private final CardBalanceCache cardBalanceCache;
+
+    @Timed(value = "bankcards.cards.history", description = "Получение истории операций по карте", histogram = true)
+    @Transactional(readOnly = true)
+    @Override
+    public CardTransactionsResponseDto getUserCardHistory(String userId, String cardId, String cursor, int pageSize) {
+        UUID id = UUID.fromString(cardId);
+        if (!cardBalanceCache.get(id).ownerId().toString().equals(userId)) {
+            throw new CardNotBelongsToUserException();
+        }
+        return getHistory(id, cursor, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CardTransactionsResponseDto getCardHistory(String cardId, String cursor, int pageSize) {
+        return getHistory(UUID.fromString(cardId), cursor, pageSize);
+    }
+
+    private CardTransactionsResponseDto getHistory(UUID cardId, String cursor, int pageSize) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)), HISTORY_SORT);
+        Slice<CardTransaction> transactions;
+        if (cursor == null) {
+            transactions = cardTransactionRepository.findByCardId(cardId, pageable);
+        } else {
+            CardTransactionCursor before = CardTransactionCursor.decode(cursor);
+            transactions = cardTransactionRepository.findByCardIdBefore(cardId, before.createdAt(),
+                                                                        before.transactionId(), pageable);
+        }
+
+        String nextCursor = transactions.hasNext() ?
+                CardTransactionCursor.of(transactions.getContent().get(transactions.getNumberOfElements() - 1)).encode() :
+                null;
+        return cardTransactionMapper.toResponseDto(nextCursor, transactions.getContent());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.mapper.UserCardsResponseMapper;
+import com.example.bankcards.repository.ReactiveCardReadRepository;
+import com.example.bankcards.service.ReactiveUserCardService;
+import com.example.bankcards.service.specification.CardFilterSpecification;
+import com.example.bankcards.util.CardCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Те же ответы и ошибки, что у UserServiceImpl.getAllCards/getBalance, но без блокировки потока на JDBC.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cards.read-stack", havingValue = "r2dbc")
+public class ReactiveUserCardServiceImpl implements ReactiveUserCardService {
+    private final ReactiveCardReadRepository cardReadRepository;
+    private final UserCardsResponseMapper userCardsResponseMapper;
+
+    @Override
+    public Mono<UserCardsResponseDto> getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo,
+                                                  String cardStatus, int page, int pageSize,
+                                                  String cursor, boolean withTotalPages) {
+        return Mono.defer(() -> {
+            UUID ownerId = UUID.fromString(userId);
+            CardStatus status = CardFilterSpecification.toCardStatus(cardStatus);
+            CardCursor cardCursor = cursor == null ? null : CardCursor.decode(cursor);
+            long offset = cursor == null ? PageRequest.of(page - 1, pageSize).getOffset() : 0;
+
+            Mono<List<Card>> cards = cardReadRepository
+                    .findCards(ownerId, expireFrom, expireTo, status, cardCursor, pageSize + 1, offset)
+                    .collectList();
+            Mono<Optional<Integer>> totalPages = withTotalPages ?
+                    cardReadRepository.countCards(ownerId, expireFrom, expireTo, status)
+                            .map(count -> Optional.of((int) ((count + pageSize - 1) / pageSize))) :
+                    Mono.just(Optional.empty());
+
+            return Mono.zip(cards, totalPages)
+                    .map(result -> toResponseDto(result.getT1(), result.getT2().orElse(null), pageSize));
+        });
+    }
+
+    @Override
+    public Mono<String> getBalance(String userId, String cardId) {
+        return Mono.defer(() -> cardReadRepository.findBalanceById(UUID.fromString(cardId)))
+                .switchIfEmpty(Mono.error(CardNotFoundException::new))
+                .handle((card, sink) -> {
+                    if (!card.getUser().getUserId().toString().equals(userId)) {
+                        sink.error(new CardNotBelongsToUserException());
+                        return;
+                    }
+                    sink.next(card.getBalance().toString());
+                });
+    }
+
+    private UserCardsResponseDto toResponseDto(List<Card> cards, Integer totalPages, int pageSize) {
+        boolean hasNext = cards.size() > pageSize;
+        List<Card> pageCards = hasNext ? cards.subList(0, pageSize) : cards;
+        String nextCursor = hasNext ?
+                CardCursor.of(pageCards.get(pageCards.size() - 1)).encode() :
+                null;
+        return userCardsResponseMapper.toResponseDto(totalPages, nextCursor, pageCards);
+    }
+}
@@ -2,34 +2,123 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.RehashingBCryptPasswordEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceCustomImpl implements UserDetailsService {
+public class UserDetailsServiceCustomImpl implements UserDetailsService, UserDetailsPasswordService {
     public static final String USERNAME_NOT_FOUND = "Пользователь с username = %s не найден";
+    private static final String REHASHED_PASSWORDS = "bankcards.password.rehashed";
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Кэш по username. Хранит неизменяемые данные пользователя, а UserDetails собирается заново на каждый вызов:
+     * после аутентификации Spring Security затирает пароль в выданном объекте.
+     */
+    private final Cache<String, CachedUser> usersCache;
+
+    public UserDetailsServiceCustomImpl(UserRepository userRepository,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${auth.user-details-cache.max-size}") long maxSize,
+                                        @Value("${auth.user-details-cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.usersCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedUser user = usersCache.get(username, this::loadUser);
+        return new UserPrincipal(
+                user.userId(),
+                user.username(),
+                user.password(),
+                List.of(new SimpleGrantedAuthority(user.role()))
+        );
+    }
+
+    /**
+     * Сохраняет пароль, перехешированный при входе с текущей стоимостью BCrypt, если в базе всё ещё проверенный
+     * при входе хеш. Если пароль успели сменить или сохранить не удалось, вход всё равно проходит со старым хешем,
+     * перехеширование повторится при следующем входе. Сохранённые перехеширования считаются в bankcards.password.rehashed
+     * с тегом from_cost - стоимостью прежнего хеша.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            if (userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) == 0) {
+                log.info("Пароль пользователя {} сменился после входа, перехеширование пропущено", user.getUsername());
+                return user;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось перехешировать пароль пользователя {}: {}", user.getUsername(), e.getMessage());
+            return user;
+        }
+        int fromCost = RehashingBCryptPasswordEncoder.costOf(user.getPassword());
+        Counter.builder(REHASHED_PASSWORDS)
+                .description("Пароли, перехешированные при входе с текущей стоимостью BCrypt")
+                .tag("from_cost", fromCost > 0 ? String.valueOf(fromCost) : "unknown")
+                .register(meterRegistry)
+                .increment();
+        usersCache.invalidate(user.getUsername());
+        return new UserPrincipal(((UserPrincipal) user).getUserId(), user.getUsername(), newPassword, user.getAuthorities());
+    }
+
+    /**
+     * Удаляет пользователя из кэша сразу и ещё раз после коммита текущей транзакции,
+     * чтобы параллельный вход не вернул в кэш незакоммиченное старое состояние.
+     */
+    public void evictUser(UUID userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(UUID userId) {
+        usersCache.asMap().values().removeIf(user -> user.userId().equals(userId));
+    }
+
+    private CachedUser loadUser(String username) {
         User user = findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(
                 String.format(USERNAME_NOT_FOUND, username)));
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority(user.getRole().toString()))
-        );
+        return new CachedUser(user.getUserId(), user.getUsername(), user.getPassword(), user.getRole().toString());
+    }
+
+    private record CachedUser(UUID userId, String username, String password, String role) {
     }
 }
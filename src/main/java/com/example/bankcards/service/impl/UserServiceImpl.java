@@ -1,84 +1,256 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.request.TransferInfoRequestDto;
+import com.example.bankcards.dto.response.BatchTransferResponseDto;
+import com.example.bankcards.dto.response.TransferResultInfo;
 import com.example.bankcards.dto.response.UserCardsResponseDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardNotActiveException;
 import com.example.bankcards.exception.CardNotBelongsToUserException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.NotEnoughMoneyException;
-import com.example.bankcards.exception.WrongCardStatusException;
 import com.example.bankcards.mapper.UserCardsResponseMapper;
+import com.example.bankcards.repository.CardBalanceView;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.TransferIdempotencyStore;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.specification.CardFilterSpecification;
+import com.example.bankcards.util.CardCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final static String SUCCESSFULLY_BLOCKED = "Карта успешно заблокирована";
     private final static String SUCCESSFULLY_TRANSFERRED = "Сумма успешно переведена между картами";
+    private final static String SAME_CARD_TRANSFER = "Карта-отправитель и карта-получатель должны различаться";
+    private final static String NON_POSITIVE_AMOUNT = "Сумма перевода должна быть положительной";
+    private final static Sort CARDS_SORT = Sort.by(Sort.Direction.ASC, "expirationDate", "cardId");
 
     private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
     private final UserCardsResponseMapper userCardsResponseMapper;
+    private final CardBalanceCache cardBalanceCache;
+    private final TransferIdempotencyStore transferIdempotencyStore;
 
+    @Value("${transfer.lock-timeout}")
+    private String lockTimeout;
+
+    @Timed(value = "bankcards.cards.list", description = "Получение карт пользователя", histogram = true)
     @Override
     public UserCardsResponseDto getAllCards(String userId, LocalDate expireFrom, LocalDate expireTo,
-                                            String cardStatus, int page, int pageSize) {
-        Sort sort = Sort.by(Sort.Direction.ASC, "expirationDate");
-        Pageable pageable = PageRequest.of(page - 1, pageSize, sort);
-
+                                            String cardStatus, int page, int pageSize,
+                                            String cursor, boolean withTotalPages) {
         Specification<Card> specification = configureSpecifications(userId, expireFrom, expireTo, cardStatus);
 
-        Page<Card> cardsPage = cardRepository.findAll(specification, pageable);
+        Slice<Card> cardsSlice;
+        if (cursor == null) {
+            Pageable pageable = PageRequest.of(page - 1, pageSize, CARDS_SORT);
+            cardsSlice = cardRepository.findBy(specification, query -> query.slice(pageable));
+        } else {
+            Pageable pageable = PageRequest.of(0, pageSize, CARDS_SORT);
+            Specification<Card> afterCursor = specification.and(CardFilterSpecification.isAfter(CardCursor.decode(cursor)));
+            cardsSlice = cardRepository.findBy(afterCursor, query -> query.slice(pageable));
+        }
 
-        return userCardsResponseMapper.toResponseDto(cardsPage.getTotalPages(), cardsPage.getContent());
+        Integer totalPages = withTotalPages ?
+                (int) ((cardRepository.count(specification) + pageSize - 1) / pageSize) :
+                null;
+        String nextCursor = cardsSlice.hasNext() ?
+                CardCursor.of(cardsSlice.getContent().get(cardsSlice.getNumberOfElements() - 1)).encode() :
+                null;
+
+        return userCardsResponseMapper.toResponseDto(totalPages, nextCursor, cardsSlice.getContent());
     }
 
+    @Timed(value = "bankcards.cards.block", description = "Блокировка карты пользователем", histogram = true)
     @Transactional
     @Override
     public String block(String userId, String cardId) {
         Card card = getCardOrThrow(cardId);
         validateCardBelongsToUser(userId, card);
+        card.setCardStatus(CardStatus.BLOCKED);
+        cardBalanceCache.evict(card.getCardId());
         return SUCCESSFULLY_BLOCKED;
     }
 
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${transfer.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${transfer.retry.delay}",
+                    maxDelayExpression = "${transfer.retry.max-delay}",
+                    multiplier = 2,
+                    random = true))
+    @Timed(value = "bankcards.cards.transfer", description = "Перевод между картами пользователя", histogram = true)
+    @Transactional
+    @Override
+    public String transfer(String userId, String idCardFrom, String idCardTo, BigDecimal amount, String idempotencyKey) {
+        UUID cardFromId = UUID.fromString(idCardFrom);
+        UUID cardToId = UUID.fromString(idCardTo);
+        validateTransferArguments(cardFromId, cardToId, amount);
+        cardRepository.setLocalLockTimeout(lockTimeout);
+
+        byte[] fingerprint = null;
+        if (idempotencyKey != null) {
+            fingerprint = TransferIdempotencyStore.fingerprint(cardFromId, cardToId, amount);
+            Optional<String> replayed = transferIdempotencyStore.claim(UUID.fromString(userId), idempotencyKey, fingerprint);
+            if (replayed.isPresent()) {
+                return replayed.get();
+            }
+        }
+
+        Map<UUID, Card> lockedCards = lockCards(List.of(cardFromId, cardToId));
+        List<CardTransaction> ledger = new ArrayList<>(2);
+        applyTransfer(userId, lockedCards, cardFromId, cardToId, amount, ledger);
+        cardTransactionRepository.saveAll(ledger);
+        cardBalanceCache.evict(List.of(cardFromId, cardToId));
+
+        if (idempotencyKey != null) {
+            transferIdempotencyStore.complete(UUID.fromString(userId), idempotencyKey, fingerprint, SUCCESSFULLY_TRANSFERRED);
+        }
+        return SUCCESSFULLY_TRANSFERRED;
+    }
 
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${transfer.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${transfer.retry.delay}",
+                    maxDelayExpression = "${transfer.retry.max-delay}",
+                    multiplier = 2,
+                    random = true))
+    @Timed(value = "bankcards.cards.transfer.batch", description = "Пакет переводов между картами пользователя", histogram = true)
     @Transactional
     @Override
-    public String transfer(String userId, String idCardFrom, String idCardTo, BigDecimal amount) {
-        Card cardFrom = getCardOrThrow(idCardFrom);
-        Card cardTo = getCardOrThrow(idCardTo);
+    public BatchTransferResponseDto transferBatch(String userId, List<TransferInfoRequestDto> transfers) {
+        cardRepository.setLocalLockTimeout(lockTimeout);
+        Set<UUID> cardIds = transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.getIdCardFrom(), transfer.getIdCardTo()))
+                .map(UUID::fromString)
+                .collect(Collectors.toSet());
+        Map<UUID, Card> lockedCards = lockCards(cardIds);
+
+        List<TransferResultInfo> results = new ArrayList<>(transfers.size());
+        List<CardTransaction> ledger = new ArrayList<>(transfers.size() * 2);
+        int succeeded = 0;
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferInfoRequestDto transfer = transfers.get(i);
+            TransferResultInfo.TransferResultInfoBuilder result = TransferResultInfo.builder()
+                    .index(i)
+                    .idCardFrom(transfer.getIdCardFrom())
+                    .idCardTo(transfer.getIdCardTo())
+                    .amount(transfer.getAmount());
+            try {
+                UUID cardFromId = UUID.fromString(transfer.getIdCardFrom());
+                UUID cardToId = UUID.fromString(transfer.getIdCardTo());
+                validateTransferArguments(cardFromId, cardToId, transfer.getAmount());
+                applyTransfer(userId, lockedCards, cardFromId, cardToId, transfer.getAmount(), ledger);
+                results.add(result.success(true).build());
+                succeeded++;
+            } catch (CardNotFoundException | CardNotBelongsToUserException | CardNotActiveException |
+                     NotEnoughMoneyException | IllegalArgumentException e) {
+                results.add(result.success(false).error(e.getMessage()).build());
+            }
+        }
+        if (succeeded > 0) {
+            cardTransactionRepository.saveAll(ledger);
+            cardBalanceCache.evict(lockedCards.keySet());
+        }
+
+        return BatchTransferResponseDto.builder()
+                .succeeded(succeeded)
+                .failed(transfers.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    @Timed(value = "bankcards.cards.balance", description = "Получение баланса карты", histogram = true)
+    @Override
+    public String getBalance(String userId, String cardId) {
+        CardBalanceView card = cardBalanceCache.get(UUID.fromString(cardId));
+
+        if (!card.ownerId().toString().equals(userId)) {
+            throw new CardNotBelongsToUserException();
+        }
+
+        return card.balance().toString();
+    }
+
+    private static void validateTransferArguments(UUID cardFromId, UUID cardToId, BigDecimal amount) {
+        if (cardFromId.equals(cardToId)) {
+            throw new IllegalArgumentException(SAME_CARD_TRANSFER);
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException(NON_POSITIVE_AMOUNT);
+        }
+    }
+
+    /**
+     * Переносит сумму между заблокированными картами и добавляет в ledger записи списания и зачисления.
+     */
+    private void applyTransfer(String userId, Map<UUID, Card> lockedCards,
+                               UUID cardFromId, UUID cardToId, BigDecimal amount, List<CardTransaction> ledger) {
+        Card cardFrom = getLockedCardOrThrow(lockedCards, cardFromId);
+        Card cardTo = getLockedCardOrThrow(lockedCards, cardToId);
 
         validateCardBelongsToUser(userId, cardFrom);
         validateCardBelongsToUser(userId, cardTo);
 
+        validateCardActive(cardFrom);
+        validateCardActive(cardTo);
+
         validateSufficientBalance(cardFrom, amount);
 
         cardFrom.setBalance(cardFrom.getBalance().subtract(amount));
         cardTo.setBalance(cardTo.getBalance().add(amount));
 
-        return SUCCESSFULLY_TRANSFERRED;
+        UUID transferId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        ledger.add(ledgerEntry(cardFrom, cardTo, transferId, CardTransactionType.TRANSFER_OUT, amount.negate(), now));
+        ledger.add(ledgerEntry(cardTo, cardFrom, transferId, CardTransactionType.TRANSFER_IN, amount, now));
     }
 
-    @Override
-    public String getBalance(String userId, String cardId) {
-        Card card = getCardOrThrow(cardId);
-
-        validateCardBelongsToUser(userId, card);
-
-        return card.getBalance().toString();
+    private static CardTransaction ledgerEntry(Card card, Card counterpart, UUID transferId,
+                                               CardTransactionType operation, BigDecimal amount, OffsetDateTime now) {
+        return CardTransaction.builder()
+                .cardId(card.getCardId())
+                .counterpartCardId(counterpart.getCardId())
+                .transferId(transferId)
+                .operation(operation)
+                .amount(amount)
+                .balanceAfter(card.getBalance())
+                .createdAt(now)
+                .build();
     }
 
     private void validateSufficientBalance(Card cardFrom, BigDecimal amount) {
@@ -87,10 +259,17 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Срок проверяется отдельно от статуса: карта с истёкшим сроком остаётся ACTIVE до прохода CardExpirationJob.
+     */
+    private static void validateCardActive(Card card) {
+        if (card.getCardStatus() != CardStatus.ACTIVE || card.getExpirationDate().isBefore(LocalDate.now())) {
+            throw new CardNotActiveException();
+        }
+    }
+
     private static void validateCardBelongsToUser(String userId, Card card) {
-        if (card.getUser().getUserId().toString().equals(userId)) {
-            card.setCardStatus(CardStatus.BLOCKED);
-        } else {
+        if (!card.getUser().getUserId().toString().equals(userId)) {
             throw new CardNotBelongsToUserException();
         }
     }
@@ -99,23 +278,24 @@ public class UserServiceImpl implements UserService {
         return cardRepository.findById(UUID.fromString(cardId)).orElseThrow(CardNotFoundException::new);
     }
 
+    private Map<UUID, Card> lockCards(Collection<UUID> cardIds) {
+        return cardRepository.findAllByIdForUpdate(cardIds)
+                .stream()
+                .collect(Collectors.toMap(Card::getCardId, Function.identity()));
+    }
+
+    private static Card getLockedCardOrThrow(Map<UUID, Card> lockedCards, UUID cardId) {
+        Card card = lockedCards.get(cardId);
+        if (card == null) {
+            throw new CardNotFoundException();
+        }
+        return card;
+    }
+
     private Specification<Card> configureSpecifications(String userId, LocalDate expireFrom, LocalDate expireTo, String cardStatus) {
         return CardFilterSpecification.hasUserId(UUID.fromString(userId))
-                .and(CardFilterSpecification.hasCardStatus(fromStringToEnumStatus(cardStatus)))
+                .and(CardFilterSpecification.hasCardStatus(CardFilterSpecification.toCardStatus(cardStatus)))
                 .and(CardFilterSpecification.hasExpirationDateAfterOrEqual(expireFrom))
                 .and(CardFilterSpecification.hasExpirationDateBeforeOrEqual(expireTo));
     }
-
-    private static CardStatus fromStringToEnumStatus(String cardStatus) {
-        if (cardStatus == null) {
-            return null;
-        }
-        CardStatus status;
-        try {
-            status = CardStatus.valueOf(cardStatus.toUpperCase());
-        } catch (Exception e) {
-            throw new WrongCardStatusException();
-        }
-        return status;
-    }
 }
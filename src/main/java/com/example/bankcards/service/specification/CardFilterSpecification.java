@@ -2,9 +2,12 @@ package com.example.bankcards.service.specification;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.WrongCardStatusException;
+import com.example.bankcards.util.CardCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -13,7 +16,9 @@ public class CardFilterSpecification {
 
     public static Specification<Card> hasUserId(UUID userId) {
         return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("user").get("userId"), userId);
+                userId == null ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.equal(root.get("user").get("userId"), userId);
     }
 
     public static Specification<Card> hasExpirationDateAfterOrEqual(LocalDate expireFrom) {
@@ -36,4 +41,46 @@ public class CardFilterSpecification {
                         criteriaBuilder.conjunction() :
                         criteriaBuilder.equal(root.get("cardStatus"), cardStatus.toString());
     }
+
+    public static Specification<Card> hasBalanceGreaterThanOrEqual(BigDecimal balanceFrom) {
+        return (root, query, criteriaBuilder) ->
+                balanceFrom == null ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.greaterThanOrEqualTo(root.get("balance"), balanceFrom);
+    }
+
+    public static Specification<Card> hasBalanceLessThanOrEqual(BigDecimal balanceTo) {
+        return (root, query, criteriaBuilder) ->
+                balanceTo == null ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.lessThanOrEqualTo(root.get("balance"), balanceTo);
+    }
+
+    /**
+     * Карты строго после курсора в порядке (expirationDate, cardId).
+     * Избыточное условие expirationDate >= даты курсора даёт планировщику границу для поиска по индексу.
+     */
+    public static Specification<Card> isAfter(CardCursor cursor) {
+        return (root, query, criteriaBuilder) ->
+                cursor == null ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.and(
+                                criteriaBuilder.greaterThanOrEqualTo(root.get("expirationDate"), cursor.expirationDate()),
+                                criteriaBuilder.or(
+                                        criteriaBuilder.greaterThan(root.get("expirationDate"), cursor.expirationDate()),
+                                        criteriaBuilder.greaterThan(root.get("cardId"), cursor.cardId())));
+    }
+
+    public static CardStatus toCardStatus(String cardStatus) {
+        if (cardStatus == null) {
+            return null;
+        }
+        CardStatus status;
+        try {
+            status = CardStatus.valueOf(cardStatus.toUpperCase());
+        } catch (Exception e) {
+            throw new WrongCardStatusException();
+        }
+        return status;
+    }
 }
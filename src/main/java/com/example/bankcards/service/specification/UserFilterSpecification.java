@@ -0,0 +1,54 @@
+package com.example.bankcards.service.specification;
+
+import com.example.bankcards.config.TrigramFunctionContributor;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.util.UserCursor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+public class UserFilterSpecification {
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * username начинается с prefix без учёта регистра. Ищется по GIN-индексу idx_users_username_trgm на lower(username).
+     */
+    public static Specification<User> hasUsernamePrefix(String prefix) {
+        return (root, query, criteriaBuilder) ->
+                prefix == null || prefix.isBlank() ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("username")),
+                                             escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    /**
+     * В имени есть слово, похожее на name (оператор pg_trgm <%, опечатки и регистр не мешают).
+     * Ищется по GIN-индексу idx_users_first_and_last_name_trgm. Имя передаётся параметром, а не литералом в тексте SQL.
+     */
+    public static Specification<User> hasNameSimilarTo(String name) {
+        return (root, query, criteriaBuilder) ->
+                name == null || name.isBlank() ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.isTrue(criteriaBuilder.function(
+                                TrigramFunctionContributor.WORD_SIMILAR, Boolean.class,
+                                ((HibernateCriteriaBuilder) criteriaBuilder).value(name.strip()),
+                                root.get("firstAndLastName")));
+    }
+
+    /**
+     * Пользователи строго после курсора в порядке username.
+     */
+    public static Specification<User> isAfter(UserCursor cursor) {
+        return (root, query, criteriaBuilder) ->
+                cursor == null ?
+                        criteriaBuilder.conjunction() :
+                        criteriaBuilder.greaterThan(root.get("username"), cursor.username());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбирает стоимость BCrypt под текущий процессор: наибольшую в [min-cost, max-cost], при которой хеш считается
+ * не дольше target-hash-time. Время замеряется на min-cost (лучшее из samples после прогрева) и удваивается
+ * на каждую следующую ступень, как растёт сама BCrypt. Если cost задан явно, замер не выполняется.
+ */
+@Slf4j
+@Component
+public class BCryptCostCalibrator {
+    private static final String PROBE_PASSWORD = "calibration-probe";
+
+    private final int fixedCost;
+    private final Duration targetHashTime;
+    private final int minCost;
+    private final int maxCost;
+    private final int samples;
+
+    public BCryptCostCalibrator(@Value("${auth.password.bcrypt.cost}") int fixedCost,
+                                @Value("${auth.password.bcrypt.target-hash-time}") Duration targetHashTime,
+                                @Value("${auth.password.bcrypt.min-cost}") int minCost,
+                                @Value("${auth.password.bcrypt.max-cost}") int maxCost,
+                                @Value("${auth.password.bcrypt.samples}") int samples) {
+        this.fixedCost = fixedCost;
+        this.targetHashTime = targetHashTime;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.samples = samples;
+    }
+
+    public int calibrate() {
+        if (fixedCost > 0) {
+            log.info("Стоимость BCrypt задана явно: {}", fixedCost);
+            return fixedCost;
+        }
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(PROBE_PASSWORD);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < samples; i++) {
+            long startedAt = System.nanoTime();
+            probe.encode(PROBE_PASSWORD);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - startedAt);
+        }
+
+        int cost = minCost;
+        long expectedNanos = bestNanos;
+        while (cost < maxCost && expectedNanos * 2 <= targetHashTime.toNanos()) {
+            cost++;
+            expectedNanos *= 2;
+        }
+        log.info("Стоимость BCrypt подобрана: {}, хеш на стоимости {} - {} мс, ожидаемо {} мс при цели {} мс",
+                 cost, minCost, TimeUnit.NANOSECONDS.toMillis(bestNanos),
+                 TimeUnit.NANOSECONDS.toMillis(expectedNanos), targetHashTime.toMillis());
+        return cost;
+    }
+}
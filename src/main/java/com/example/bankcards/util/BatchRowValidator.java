@@ -0,0 +1,28 @@
+package com.example.bankcards.util;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Проверяет строки пакетного запроса по одной, чтобы некорректная строка получила отказ в своём результате,
+ * а не отклонила весь пакет с ответом 400.
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchRowValidator {
+    private final Validator validator;
+
+    /**
+     * Нарушения ограничений строки в виде "поле: сообщение" через "; " или null, если строка корректна.
+     */
+    public String validate(Object row) {
+        String errors = validator.validate(row).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return errors.isEmpty() ? null : errors;
+    }
+}
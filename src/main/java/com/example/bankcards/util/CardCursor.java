@@ -0,0 +1,41 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.Card;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция keyset-пагинации по картам: последняя выданная клиенту пара (expiration_date, card_id).
+ * Клиенту отдаётся в виде непрозрачной base64url-строки.
+ */
+public record CardCursor(LocalDate expirationDate, UUID cardId) {
+    private static final String INVALID_CURSOR = "Некорректный курсор пагинации";
+    private static final String SEPARATOR = "_";
+
+    public static CardCursor of(Card card) {
+        return new CardCursor(card.getExpirationDate(), card.getCardId());
+    }
+
+    public static CardCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            return new CardCursor(LocalDate.parse(decoded.substring(0, separatorIndex)),
+                                  UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = expirationDate + SEPARATOR + cardId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.CardEncryptionProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Шифрование номеров карт AES-GCM на стороне приложения.
+ * Формат: [версия ключа, 1 байт][IV, 12 байт][шифротекст с тегом 16 байт].
+ * Версия ключа позволяет ротировать ключи без одномоментного перешифрования всей таблицы.
+ */
+@Component
+public class CardNumberCipher {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final int currentKeyVersion;
+    private final Map<Integer, SecretKeySpec> keys = new HashMap<>();
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(CardNumberCipher::newCipher);
+
+    public CardNumberCipher(CardEncryptionProperties properties) {
+        properties.getKeys().forEach((version, key) -> {
+            if (version < 1 || version > 255) {
+                throw new IllegalStateException("Версия ключа шифрования карт должна быть от 1 до 255: " + version);
+            }
+            keys.put(version, new SecretKeySpec(Base64.getDecoder().decode(key), "AES"));
+        });
+        if (!keys.containsKey(properties.getCurrentKeyVersion())) {
+            throw new IllegalStateException("Не задан ключ шифрования карт версии " + properties.getCurrentKeyVersion());
+        }
+        this.currentKeyVersion = properties.getCurrentKeyVersion();
+    }
+
+    public byte[] encrypt(String cardNumber) {
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        try {
+            Cipher aes = cipher.get();
+            aes.init(Cipher.ENCRYPT_MODE, keys.get(currentKeyVersion), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] plain = cardNumber.getBytes(StandardCharsets.UTF_8);
+            try {
+                ByteBuffer result = ByteBuffer.allocate(1 + IV_LENGTH + aes.getOutputSize(plain.length));
+                result.put((byte) currentKeyVersion).put(iv);
+                aes.doFinal(ByteBuffer.wrap(plain), result);
+                return result.array();
+            } finally {
+                Pan.wipe(plain);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось зашифровать номер карты", e);
+        }
+    }
+
+    public String decrypt(byte[] encrypted) {
+        int version = Byte.toUnsignedInt(encrypted[0]);
+        SecretKeySpec key = keys.get(version);
+        if (key == null) {
+            throw new IllegalStateException("Не задан ключ шифрования карт версии " + version);
+        }
+        try {
+            Cipher aes = cipher.get();
+            aes.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, encrypted, 1, IV_LENGTH));
+            byte[] plain = aes.doFinal(encrypted, 1 + IV_LENGTH, encrypted.length - 1 - IV_LENGTH);
+            try {
+                return new String(plain, StandardCharsets.UTF_8);
+            } finally {
+                Pan.wipe(plain);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Не удалось расшифровать номер карты", e);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
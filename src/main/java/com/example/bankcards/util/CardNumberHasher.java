@@ -0,0 +1,45 @@
+package com.example.bankcards.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Слепой индекс номера карты: HMAC-SHA256 от цифр номера. Позволяет искать карту по номеру
+ * и проверять уникальность через индекс, не расшифровывая номера в базе.
+ * Тем же классом заполняются хеши существующих карт в миграции 01.000.04.
+ */
+@Component
+public class CardNumberHasher {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public CardNumberHasher(@Value("${security-properties.security.cardNumberHmacKey}") String hmacKey) {
+        SecretKeySpec key = new SecretKeySpec(hmacKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public byte[] hash(String cardNumber) {
+        byte[] digits = new byte[cardNumber.length()];
+        try {
+            Mac instance = mac.get();
+            instance.update(digits, 0, Pan.copyDigits(cardNumber, digits));
+            return instance.doFinal();
+        } finally {
+            Pan.wipe(digits);
+        }
+    }
+}
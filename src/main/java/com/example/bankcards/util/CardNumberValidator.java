@@ -0,0 +1,23 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.util.annotations.CardNumber;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CardNumberValidator implements ConstraintValidator<CardNumber, String> {
+    private boolean luhn;
+
+    @Override
+    public void initialize(CardNumber constraintAnnotation) {
+        this.luhn = constraintAnnotation.luhn();
+    }
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+
+        return luhn ? Pan.isValid(value) : Pan.isWellFormed(value);
+    }
+}
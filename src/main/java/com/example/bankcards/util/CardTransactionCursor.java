@@ -0,0 +1,41 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.CardTransaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция keyset-пагинации по истории карты: последняя выданная клиенту пара (created_at, transaction_id).
+ * Клиенту отдаётся в виде непрозрачной base64url-строки.
+ */
+public record CardTransactionCursor(OffsetDateTime createdAt, UUID transactionId) {
+    private static final String INVALID_CURSOR = "Некорректный курсор пагинации";
+    private static final String SEPARATOR = "_";
+
+    public static CardTransactionCursor of(CardTransaction transaction) {
+        return new CardTransactionCursor(transaction.getCreatedAt(), transaction.getTransactionId());
+    }
+
+    public static CardTransactionCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            return new CardTransactionCursor(OffsetDateTime.parse(decoded.substring(0, separatorIndex)),
+                                             UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
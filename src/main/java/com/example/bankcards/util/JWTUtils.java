@@ -1,6 +1,10 @@
 package com.example.bankcards.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -10,7 +14,11 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,11 +32,44 @@ public class JWTUtils {
     @Value("${jwt.lifetime}")
     private Duration lifetime;
 
+    @Value("${jwt.claims-cache.max-size}")
+    private long claimsCacheMaxSize;
+
     private Key key;
 
+    private JwtParser parser;
+
+    /**
+     * Проверенные токены по SHA-256 от токена. Запись живёт до exp токена,
+     * поэтому просроченный токен из кэша не достаётся и заново отклоняется парсером.
+     */
+    private Cache<String, TokenClaims> claimsCache;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, TokenClaims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -50,19 +91,35 @@ public class JWTUtils {
                 .compact();
     }
 
+    /**
+     * Проверяет подпись и срок действия токена. Повторные запросы с тем же токеном берут результат из кэша.
+     */
+    public TokenClaims getVerifiedClaims(String token) {
+        return claimsCache.get(digest(token), ignored -> parse(token));
+    }
+
     public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+        return getVerifiedClaims(token).username();
     }
 
     public String getRoleFromToken(String token) {
-        return getClaimsFromToken(token).get("role", String.class);
+        return getVerifiedClaims(token).role();
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private TokenClaims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new TokenClaims(claims.getSubject(), claims.get("role", String.class), claims.getExpiration().toInstant());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record TokenClaims(String username, String role, Instant expiresAt) {
     }
 }
@@ -0,0 +1,62 @@
+package com.example.bankcards.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ответ потоком NDJSON для пакетных операций: producer получает приёмник и передаёт в него результаты частями,
+ * каждая часть пишется по строке на результат и сразу отправляется клиенту.
+ * Поток пишется асинхронно, и для него задаётся свой таймаут batch.stream-timeout: по умолчанию Tomcat закрывает
+ * асинхронный запрос через 30 секунд, и пакет, который пишется дольше, обрывался бы без строки об ошибке.
+ */
+@Component
+public class NdjsonStreams {
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public NdjsonStreams(ObjectMapper objectMapper,
+                         @Value("${batch.stream-timeout}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Вызывается из обработчика запроса: таймаут ставится на асинхронную обработку текущего запроса.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> response(Consumer<Consumer<List<T>>> producer) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                .getAsyncWebRequest()
+                .setTimeout(timeout.toMillis());
+        StreamingResponseBody body = outputStream -> producer.accept(results -> writeLines(outputStream, results));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLines(OutputStream outputStream, List<?> results) {
+        try {
+            for (Object result : results) {
+                outputStream.write(objectMapper.writeValueAsBytes(result));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
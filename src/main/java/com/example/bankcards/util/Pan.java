@@ -0,0 +1,181 @@
+package com.example.bankcards.util;
+
+import java.util.Arrays;
+
+/**
+ * Работа с номером карты (PAN) без промежуточных строк и массивов: проверка формата и контрольной цифры
+ * по алгоритму Луна, приведение к виду "1111 2222 3333 4444", маскирование и затирание буферов.
+ * Номер принимается как CharSequence, чтобы его можно было передать в char[]/StringBuilder и затереть после использования.
+ */
+public final class Pan {
+    public static final int DIGITS = 16;
+    public static final int FORMATTED_LENGTH = DIGITS + 3;
+
+    private static final int GROUP = 4;
+    private static final String MASK_PREFIX = "**** **** **** ";
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[FORMATTED_LENGTH]);
+
+    private Pan() {
+    }
+
+    /**
+     * 16 цифр, блоки по 4 могут разделяться одним пробелом или дефисом.
+     */
+    public static boolean isWellFormed(CharSequence pan) {
+        if (pan == null) {
+            return false;
+        }
+        int digits = 0;
+        for (int i = 0; i < pan.length(); i++) {
+            char c = pan.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+                if (digits > DIGITS) {
+                    return false;
+                }
+            } else if (!isSeparator(c) || digits == 0 || digits % GROUP != 0 || digits == DIGITS
+                    || i + 1 == pan.length() || !isDigit(pan.charAt(i + 1))) {
+                return false;
+            }
+        }
+        return digits == DIGITS;
+    }
+
+    public static boolean isLuhnValid(CharSequence pan) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = pan.length() - 1; i >= 0; i--) {
+            char c = pan.charAt(i);
+            if (!isDigit(c)) {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    public static boolean isValid(CharSequence pan) {
+        return isWellFormed(pan) && isLuhnValid(pan);
+    }
+
+    /**
+     * Приводит корректный номер к виду "1111 2222 3333 4444".
+     */
+    public static String normalize(CharSequence pan) {
+        if (!isWellFormed(pan)) {
+            throw new IllegalArgumentException("Номер карты должен состоять из 16 цифр");
+        }
+        char[] buffer = BUFFER.get();
+        try {
+            int position = 0;
+            for (int i = 0; i < pan.length(); i++) {
+                char c = pan.charAt(i);
+                if (isDigit(c)) {
+                    if (position % (GROUP + 1) == GROUP) {
+                        buffer[position++] = ' ';
+                    }
+                    buffer[position++] = c;
+                }
+            }
+            return new String(buffer);
+        } finally {
+            wipe(buffer);
+        }
+    }
+
+    /**
+     * Цифры номера в виде ASCII-байт, для HMAC. Возвращает количество записанных байт.
+     */
+    public static int copyDigits(CharSequence pan, byte[] target) {
+        int count = 0;
+        for (int i = 0; i < pan.length(); i++) {
+            char c = pan.charAt(i);
+            if (isDigit(c)) {
+                target[count++] = (byte) c;
+            }
+        }
+        return count;
+    }
+
+    public static String lastFour(CharSequence pan) {
+        char[] buffer = BUFFER.get();
+        try {
+            int position = GROUP;
+            for (int i = pan.length() - 1; i >= 0 && position > 0; i--) {
+                char c = pan.charAt(i);
+                if (isDigit(c)) {
+                    buffer[--position] = c;
+                }
+            }
+            if (position > 0) {
+                throw new IllegalArgumentException("В номере карты меньше 4 цифр");
+            }
+            return new String(buffer, 0, GROUP);
+        } finally {
+            wipe(buffer);
+        }
+    }
+
+    /**
+     * Маска вида "**** **** **** 1234". Принимает полный номер или только последние 4 цифры.
+     */
+    public static String mask(CharSequence pan) {
+        StringBuilder masked = new StringBuilder(FORMATTED_LENGTH);
+        maskTo(pan, masked);
+        return masked.toString();
+    }
+
+    public static void maskTo(CharSequence pan, StringBuilder target) {
+        int end = pan.length();
+        int start = end;
+        for (int digits = 0; start > 0 && digits < GROUP; start--) {
+            if (isDigit(pan.charAt(start - 1))) {
+                digits++;
+            }
+        }
+        target.append(MASK_PREFIX);
+        for (int i = start; i < end; i++) {
+            char c = pan.charAt(i);
+            if (isDigit(c)) {
+                target.append(c);
+            }
+        }
+    }
+
+    public static void wipe(char[] buffer) {
+        if (buffer != null) {
+            Arrays.fill(buffer, '\0');
+        }
+    }
+
+    public static void wipe(byte[] buffer) {
+        if (buffer != null) {
+            Arrays.fill(buffer, (byte) 0);
+        }
+    }
+
+    public static void wipe(StringBuilder buffer) {
+        if (buffer != null) {
+            for (int i = 0; i < buffer.length(); i++) {
+                buffer.setCharAt(i, '\0');
+            }
+            buffer.setLength(0);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+}
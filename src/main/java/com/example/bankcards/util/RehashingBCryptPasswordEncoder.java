@@ -0,0 +1,41 @@
+package com.example.bankcards.util;
+
+import lombok.Getter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt с заданной стоимостью, который просит перехешировать пароль при входе, если стоимость сохранённого хеша
+ * отличается от текущей в любую сторону (стандартный BCryptPasswordEncoder - только если она ниже).
+ * Так после смены стоимости хеши постепенно выравниваются, и время входа не зависит от того, когда создан пользователь.
+ */
+@Getter
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int cost;
+
+    public RehashingBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int storedCost = costOf(encodedPassword);
+        return storedCost > 0 && storedCost != cost;
+    }
+
+    /**
+     * Стоимость из BCrypt-хеша или -1, если строка не BCrypt-хеш.
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция keyset-пагинации по пользователям: последний выданный клиенту username (уникален).
+ * Клиенту отдаётся в виде непрозрачной base64url-строки.
+ */
+public record UserCursor(String username) {
+    private static final String INVALID_CURSOR = "Некорректный курсор пагинации";
+
+    public static UserCursor of(User user) {
+        return new UserCursor(user.getUsername());
+    }
+
+    public static UserCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.isEmpty()) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+            return new UserCursor(decoded);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.util.annotations;
+
+import com.example.bankcards.util.CardNumberValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Constraint(validatedBy = CardNumberValidator.class)
+@Target({ElementType.METHOD, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CardNumber {
+    String message() default "Номер карты должен состоять из 16 цифр в блоках по 4 и проходить проверку по алгоритму Луна";
+
+    boolean luhn() default true;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
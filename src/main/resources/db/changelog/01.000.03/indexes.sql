@@ -0,0 +1,4 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.03/indexes.sql runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_user_id_expiration_date_card_id ON cards (user_id, expiration_date, card_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_expiration_date_card_id ON cards (expiration_date, card_id);
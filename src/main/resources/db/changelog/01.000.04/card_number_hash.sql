@@ -0,0 +1,3 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.04/card_number_hash.sql
+ALTER TABLE cards ADD card_number_hash bytea;
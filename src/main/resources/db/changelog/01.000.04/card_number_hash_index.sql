@@ -0,0 +1,3 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.04/card_number_hash_index.sql runInTransaction:false
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_cards_card_number_hash ON cards (card_number_hash);
@@ -0,0 +1,3 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.06/card_number_last4.sql
+ALTER TABLE cards ADD card_number_last4 VARCHAR(4);
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.07/transfer_idempotency_keys.sql
+CREATE TABLE transfer_idempotency_keys
+(
+    user_id             UUID                            NOT NULL,
+    idempotency_key     VARCHAR(255)                    NOT NULL,
+    request_hash        bytea                           NOT NULL,
+    response            TEXT,
+    expires_at          TIMESTAMP WITH TIME ZONE        NOT NULL,
+    CONSTRAINT pk_transfer_idempotency_keys PRIMARY KEY (user_id, idempotency_key),
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_transfer_idempotency_keys_expires_at ON transfer_idempotency_keys (expires_at);
@@ -0,0 +1,17 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.08/card_transactions.sql
+CREATE TABLE card_transactions
+(
+    transaction_id      UUID                            NOT NULL,
+    card_id             UUID                            NOT NULL,
+    counterpart_card_id UUID,
+    transfer_id         UUID,
+    operation           VARCHAR(30)                     NOT NULL,
+    amount              NUMERIC(15, 2)                  NOT NULL,
+    balance_after       NUMERIC(15, 2)                  NOT NULL,
+    created_at          TIMESTAMP WITH TIME ZONE        NOT NULL,
+    CONSTRAINT pk_card_transactions PRIMARY KEY (transaction_id, created_at),
+    CONSTRAINT ch_card_transactions_operation CHECK ( operation in ('OPENING_BALANCE', 'TRANSFER_OUT', 'TRANSFER_IN'))
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_card_transactions_card_id_created_at ON card_transactions (card_id, created_at DESC, transaction_id DESC);
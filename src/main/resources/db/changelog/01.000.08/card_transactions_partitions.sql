@@ -0,0 +1,16 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.08/card_transactions_partitions.sql splitStatements:false
+DO
+$$
+    DECLARE
+        month_start TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC');
+    BEGIN
+        FOR i IN 0..2
+            LOOP
+                EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF card_transactions FOR VALUES FROM (%L) TO (%L)',
+                               'card_transactions_' || to_char(month_start + make_interval(months => i), 'YYYY_MM'),
+                               (month_start + make_interval(months => i)) || '+00',
+                               (month_start + make_interval(months => i + 1)) || '+00');
+            END LOOP;
+    END
+$$;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.08/opening_balances.sql
+INSERT INTO card_transactions (transaction_id, card_id, operation, amount, balance_after, created_at)
+SELECT gen_random_uuid(), card_id, 'OPENING_BALANCE', balance, balance, now()
+FROM cards;
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.09/cards_active_expiration_index.sql runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_active_expiration_date_card_id ON cards (expiration_date, card_id)
+    WHERE card_status = 'ACTIVE';
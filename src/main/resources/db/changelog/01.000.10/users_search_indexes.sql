@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset cucurbita:db localFilePath:01.000.10/users_search_indexes.sql runInTransaction:false
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_and_last_name_trgm ON users USING gin (first_and_last_name gin_trgm_ops);
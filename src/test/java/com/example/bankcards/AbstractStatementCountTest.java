@@ -0,0 +1,31 @@
+package com.example.bankcards;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Базовый класс для тестов, считающих SQL-запросы через статистику Hibernate.
+ * Подготовка данных в @BeforeEach наследника тоже попадает в статистику, поэтому перед проверяемым вызовом
+ * нужно вызвать {@link #clearStatistics()}.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public abstract class AbstractStatementCountTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected Statistics statistics;
+
+    @BeforeEach
+    void setUpStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    protected void clearStatistics() {
+        statistics.clear();
+    }
+}
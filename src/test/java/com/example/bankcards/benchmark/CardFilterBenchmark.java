@@ -0,0 +1,136 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.CardEncryptionProperties;
+import com.example.bankcards.dto.request.CardInfoRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.service.specification.CardFilterSpecification;
+import com.example.bankcards.util.CardCursor;
+import com.example.bankcards.util.CardNumberCipher;
+import com.example.bankcards.util.CardNumberHasher;
+import com.example.bankcards.util.EnumValidator;
+import com.example.bankcards.util.annotations.EnumValue;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка фильтров админского списка карт: валидация статуса через EnumValidator,
+ * сборка цепочки CardFilterSpecification и построение по ней предикатов Criteria API.
+ * Hibernate поднимается без подключения к базе, только ради метамодели и CriteriaBuilder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardFilterBenchmark {
+    private static final String ENCRYPTION_KEY = "ZiPJ0s5ovHSO2saAhuJQQ/DNqGUsXl5iGOspxcktds8=";
+    private static final String HMAC_KEY = "9c1f4e7a2b8d4c03a6e5f1b7d2c8e4a0";
+
+    private EnumValidator enumValidator;
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+
+    private UUID userId;
+    private LocalDate expireFrom;
+    private LocalDate expireTo;
+    private String cursor;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        enumValidator = new EnumValidator();
+        enumValidator.initialize(CardInfoRequestDto.class.getDeclaredField("cardStatus").getAnnotation(EnumValue.class));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("cardNumberCipher",
+                                      new CardNumberCipher(new CardEncryptionProperties(1, Map.of(1, ENCRYPTION_KEY))));
+        beanFactory.registerSingleton("cardNumberHasher", new CardNumberHasher(HMAC_KEY));
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Card.class)
+                .setProperty(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .setProperty(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false");
+        configuration.getProperties().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
+        sessionFactory = configuration.buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+
+        userId = UUID.randomUUID();
+        expireFrom = LocalDate.of(2026, 1, 1);
+        expireTo = LocalDate.of(2030, 12, 31);
+        cursor = new CardCursor(LocalDate.of(2027, 6, 30), UUID.randomUUID()).encode();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public boolean enumValidatorValid() {
+        return enumValidator.isValid("blocked", null);
+    }
+
+    @Benchmark
+    public boolean enumValidatorInvalid() {
+        return enumValidator.isValid("UNKNOWN", null);
+    }
+
+    @Benchmark
+    public Specification<Card> composeSpecification() {
+        return allFilters();
+    }
+
+    @Benchmark
+    public Predicate composeSpecificationToPredicate() {
+        CriteriaQuery<Card> query = criteriaBuilder.createQuery(Card.class);
+        Root<Card> root = query.from(Card.class);
+        return allFilters().toPredicate(root, query, criteriaBuilder);
+    }
+
+    private Specification<Card> allFilters() {
+        return CardFilterSpecification.hasUserId(userId)
+                .and(CardFilterSpecification.hasCardStatus(CardFilterSpecification.toCardStatus("active")))
+                .and(CardFilterSpecification.hasExpirationDateAfterOrEqual(expireFrom))
+                .and(CardFilterSpecification.hasExpirationDateBeforeOrEqual(expireTo))
+                .and(CardFilterSpecification.hasBalanceGreaterThanOrEqual(BigDecimal.ZERO))
+                .and(CardFilterSpecification.hasBalanceLessThanOrEqual(BigDecimal.valueOf(1_000_000)))
+                .and(CardFilterSpecification.isAfter(CardCursor.decode(cursor)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(CardFilterBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
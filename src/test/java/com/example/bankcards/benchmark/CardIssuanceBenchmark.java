@@ -0,0 +1,149 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankCardSysManagmentApplication;
+import com.example.bankcards.dto.request.CardInfoRequestDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.util.Pan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность пакетного выпуска карт в картах в секунду (вставка карты и записи начального баланса)
+ * в зависимости от размера JDBC-батча и склейки батча в многострочный INSERT на стороне pgjdbc.
+ * Поднимает PostgreSQL через Testcontainers и контекст приложения без веб-сервера на каждую комбинацию параметров.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CardIssuanceBenchmark.CARDS_PER_BATCH)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CardIssuanceBenchmark {
+    static final int CARDS_PER_BATCH = 2000;
+    private static final int OWNERS = 20;
+
+    @Param({"1", "50", "500"})
+    private int jdbcBatchSize;
+
+    @Param({"false", "true"})
+    private boolean reWriteBatchedInserts;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private AdminCardService adminCardService;
+    private List<String> ownerIds;
+    private long nextCardNumber;
+    private List<CardInfoRequestDto> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16.0");
+        postgres.start();
+        context = new SpringApplicationBuilder(BankCardSysManagmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", postgres.getJdbcUrl(),
+                        "spring.datasource.username", postgres.getUsername(),
+                        "spring.datasource.password", postgres.getPassword(),
+                        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts", reWriteBatchedInserts,
+                        "cards.issuance.jdbc-batch-size", jdbcBatchSize,
+                        "spring.jpa.show-sql", "false"))
+                .run();
+        adminCardService = context.getBean(AdminCardService.class);
+        // номера каждого прогона из своего диапазона, чтобы не пересекаться с картами прошлых прогонов в той же базе
+        nextCardNumber = ThreadLocalRandom.current().nextLong(1_000_000) * 1_000_000_000L;
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ownerIds = new ArrayList<>(OWNERS);
+        for (int i = 0; i < OWNERS; i++) {
+            ownerIds.add(userRepository.save(User.builder()
+                                                     .firstAndLastName("Corporate Client " + i)
+                                                     .username("corporate-" + UUID.randomUUID())
+                                                     .password("password")
+                                                     .role(UserRole.ROLE_USER)
+                                                     .build())
+                                 .getUserId()
+                                 .toString());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        batch = new ArrayList<>(CARDS_PER_BATCH);
+        for (int i = 0; i < CARDS_PER_BATCH; i++) {
+            String digits = String.format("5%014d", nextCardNumber++);
+            // контрольная цифра по алгоритму Луна: строки пакета с неверным номером отклоняются без записи
+            int checkDigit = 0;
+            while (!Pan.isLuhnValid(digits + checkDigit)) {
+                checkDigit++;
+            }
+            digits += checkDigit;
+            batch.add(CardInfoRequestDto.builder()
+                              .cardNumber(String.join(" ", digits.substring(0, 4), digits.substring(4, 8),
+                                                      digits.substring(8, 12), digits.substring(12)))
+                              .userId(ownerIds.get(i % OWNERS))
+                              .expirationDate(LocalDate.now().plusYears(3))
+                              .cardStatus("ACTIVE")
+                              .balance(BigDecimal.TEN)
+                              .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long issueCards() {
+        long[] issued = new long[1];
+        adminCardService.createCards(batch, results -> issued[0] += results.stream()
+                .filter(CardIssueResultInfo::getSuccess)
+                .count());
+        if (issued[0] != CARDS_PER_BATCH) {
+            throw new IllegalStateException("Выпущено " + issued[0] + " карт из " + CARDS_PER_BATCH);
+        }
+        return issued[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(CardIssuanceBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankCardSysManagmentApplication;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.UserService;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка операций по карте, которым номер карты не нужен: с ленивым номером (как работает сервис)
+ * и с загрузкой и расшифровкой номера вместе со строкой карты (как было до ленивой загрузки).
+ * Поднимает PostgreSQL через Testcontainers и контекст приложения без веб-сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardLoadingBenchmark {
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private EntityGraph<Card> withCardNumber;
+
+    private String userId;
+    private String cardFromId;
+    private String cardToId;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16.0");
+        postgres.start();
+        context = new SpringApplicationBuilder(BankCardSysManagmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", postgres.getJdbcUrl(),
+                        "spring.datasource.username", postgres.getUsername(),
+                        "spring.datasource.password", postgres.getPassword(),
+                        "spring.jpa.show-sql", "false"))
+                .run();
+        userService = context.getBean(UserService.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        withCardNumber = transactionTemplate.execute(status -> {
+            EntityGraph<Card> graph = entityManager.createEntityGraph(Card.class);
+            graph.addAttributeNodes("cardNumber");
+            return graph;
+        });
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                                                                       .firstAndLastName("Benchmark User")
+                                                                       .username("benchmark-" + UUID.randomUUID())
+                                                                       .password("password")
+                                                                       .role(UserRole.ROLE_USER)
+                                                                       .build());
+        CardRepository cardRepository = context.getBean(CardRepository.class);
+        userId = user.getUserId().toString();
+        cardFromId = cardRepository.save(newCard(user, "4000 0000 0000 0002")).getCardId().toString();
+        cardToId = cardRepository.save(newCard(user, "4000 0000 0000 0010")).getCardId().toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public String getBalanceLazyCardNumber() {
+        return userService.getBalance(userId, cardFromId);
+    }
+
+    @Benchmark
+    public BigDecimal getBalanceLoadingCardNumber() {
+        return transactionTemplate.execute(status ->
+                entityManager.find(Card.class, UUID.fromString(cardFromId), Map.of(FETCH_GRAPH, withCardNumber))
+                        .getBalance());
+    }
+
+    @Benchmark
+    public String transferLazyCardNumber() {
+        return userService.transfer(userId, cardFromId, cardToId, new BigDecimal("0.01"), null);
+    }
+
+    @Benchmark
+    public BigDecimal transferLoadingCardNumber() {
+        return transactionTemplate.execute(status -> {
+            List<Card> cards = entityManager.createQuery(
+                            "select c from Card c where c.cardId in :cardIds order by c.cardId", Card.class)
+                    .setParameter("cardIds", List.of(UUID.fromString(cardFromId), UUID.fromString(cardToId)))
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setHint(FETCH_GRAPH, withCardNumber)
+                    .getResultList();
+            Card from = cards.get(0).getCardId().toString().equals(cardFromId) ? cards.get(0) : cards.get(1);
+            Card to = from == cards.get(0) ? cards.get(1) : cards.get(0);
+            from.setBalance(from.getBalance().subtract(new BigDecimal("0.01")));
+            to.setBalance(to.getBalance().add(new BigDecimal("0.01")));
+            return from.getBalance();
+        });
+    }
+
+    private static Card newCard(User user, String cardNumber) {
+        return Card.builder()
+                .cardNumber(cardNumber)
+                .user(user)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .cardStatus(CardStatus.ACTIVE)
+                .balance(BigDecimal.valueOf(1_000_000_000))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(CardLoadingBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.CardEncryptionProperties;
+import com.example.bankcards.util.CardNumberCipher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шифрование номера карты: AES-GCM в JVM против pgcrypto (pgp_sym_encrypt/pgp_sym_decrypt) в PostgreSQL.
+ * pgcrypto-бенчмарки поднимают PostgreSQL через Testcontainers, selectRoundTrip показывает стоимость самого запроса,
+ * чтобы отделить её от работы pgcrypto.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberEncryptionBenchmark {
+    private static final String CARD_NUMBER = "1111 2222 3333 4444";
+    private static final String LEGACY_KEY = "gravicappa";
+
+    @State(Scope.Benchmark)
+    public static class AesGcm {
+        CardNumberCipher cipher;
+        byte[] encrypted;
+
+        @Setup
+        public void setUp() {
+            cipher = new CardNumberCipher(new CardEncryptionProperties(1, Map.of(1, "ZiPJ0s5ovHSO2saAhuJQQ/DNqGUsXl5iGOspxcktds8=")));
+            encrypted = cipher.encrypt(CARD_NUMBER);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pgcrypto {
+        PostgreSQLContainer<?> postgres;
+        Connection connection;
+        PreparedStatement encrypt;
+        PreparedStatement decrypt;
+        PreparedStatement roundTrip;
+        byte[] encrypted;
+
+        @Setup
+        public void setUp() throws SQLException {
+            postgres = new PostgreSQLContainer<>("postgres:16.0");
+            postgres.start();
+            connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+            connection.createStatement().execute("create extension if not exists pgcrypto");
+            encrypt = connection.prepareStatement("select pgp_sym_encrypt(?::text, ?)");
+            decrypt = connection.prepareStatement("select pgp_sym_decrypt(?, ?)");
+            roundTrip = connection.prepareStatement("select ?::bytea");
+            encrypted = (byte[]) querySingle(encrypt, CARD_NUMBER, LEGACY_KEY);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public byte[] aesGcmEncrypt(AesGcm state) {
+        return state.cipher.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String aesGcmDecrypt(AesGcm state) {
+        return state.cipher.decrypt(state.encrypted);
+    }
+
+    @Benchmark
+    public Object pgcryptoEncrypt(Pgcrypto state) throws SQLException {
+        return querySingle(state.encrypt, CARD_NUMBER, LEGACY_KEY);
+    }
+
+    @Benchmark
+    public Object pgcryptoDecrypt(Pgcrypto state) throws SQLException {
+        return querySingle(state.decrypt, state.encrypted, LEGACY_KEY);
+    }
+
+    @Benchmark
+    public Object selectRoundTrip(Pgcrypto state) throws SQLException {
+        return querySingle(state.roundTrip, state.encrypted);
+    }
+
+    private static Object querySingle(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getObject(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(CardNumberEncryptionBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка на запущенное приложение по HTTP для сравнения режимов платформенных и виртуальных потоков
+ * (spring profile virtual-threads). Адрес берётся из переменной окружения BENCHMARK_BASE_URL,
+ * по умолчанию http://localhost:9009. Нужны пользователи misha и admin из начальной миграции.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(200)
+@Fork(1)
+public class HttpLoadBenchmark {
+    private static final String BASE_URL = System.getenv().getOrDefault("BENCHMARK_BASE_URL", "http://localhost:9009");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String userToken;
+    private String userId;
+    private String cardId;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        JsonNode user = login("misha", "misha");
+        userToken = user.get("token").asText();
+        userId = user.get("userId").asText();
+
+        String adminToken = login("admin", "admin").get("token").asText();
+        JsonNode cards = objectMapper.readTree(send(HttpRequest.newBuilder(URI.create(BASE_URL + "/admin/cards/all?userId=" + userId))
+                                                            .header("Authorization", "Bearer " + adminToken)
+                                                            .GET()));
+        if (cards.get("cards").isEmpty()) {
+            String card = objectMapper.writeValueAsString(Map.of(
+                    "cardNumber", randomCardNumber(),
+                    "userId", userId,
+                    "expirationDate", LocalDate.now().plusYears(3).toString(),
+                    "cardStatus", "ACTIVE",
+                    "balance", 1000));
+            cardId = objectMapper.readTree(send(HttpRequest.newBuilder(URI.create(BASE_URL + "/admin/cards"))
+                                                        .header("Authorization", "Bearer " + adminToken)
+                                                        .header("Content-Type", "application/json")
+                                                        .POST(HttpRequest.BodyPublishers.ofString(card))))
+                    .get("cardId").asText();
+        } else {
+            cardId = cards.get("cards").get(0).get("cardId").asText();
+        }
+    }
+
+    @Benchmark
+    public String getBalance() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(BASE_URL + "/user/balance/" + cardId))
+                            .header("Authorization", "Bearer " + userToken)
+                            .header("userId", userId)
+                            .GET());
+    }
+
+    @Benchmark
+    public String getAllCards() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(BASE_URL + "/user/all?pageSize=20"))
+                            .header("Authorization", "Bearer " + userToken)
+                            .header("userId", userId)
+                            .GET());
+    }
+
+    @Benchmark
+    public JsonNode createAuthToken() throws IOException, InterruptedException {
+        return login("misha", "misha");
+    }
+
+    private JsonNode login(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        return objectMapper.readTree(send(HttpRequest.newBuilder(URI.create(BASE_URL + "/auth"))
+                                                  .header("Content-Type", "application/json")
+                                                  .POST(HttpRequest.BodyPublishers.ofString(body))));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String randomCardNumber() {
+        int[] digits = new int[16];
+        for (int i = 0; i < 15; i++) {
+            digits[i] = ThreadLocalRandom.current().nextInt(10);
+        }
+        int sum = 0;
+        for (int i = 14; i >= 0; i--) {
+            int digit = digits[i];
+            if ((14 - i) % 2 == 0) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        digits[15] = (10 - sum % 10) % 10;
+
+        StringBuilder cardNumber = new StringBuilder(19);
+        for (int i = 0; i < 16; i++) {
+            if (i > 0 && i % 4 == 0) {
+                cardNumber.append(' ');
+            }
+            cardNumber.append(digits[i]);
+        }
+        return cardNumber.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(HttpLoadBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
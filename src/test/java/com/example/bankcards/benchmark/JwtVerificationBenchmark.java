@@ -0,0 +1,94 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.JWTUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки JWT на один запрос: как было в JwtRequestFilter (два разбора с новым парсером)
+ * и через кэш проверенных токенов в JWTUtils. Отдельно - выпуск токена при логине.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "6d0846f9164e22e86be8e54a3d87c8673a17d042068abb348ba4a9fb89535621";
+
+    private Key key;
+    private JWTUtils jwtUtils;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "lifetime", Duration.ofHours(1));
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxSize", 10_000L);
+        jwtUtils.init();
+        userDetails = new User("misha", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public void parseTwiceWithNewParser(Blackhole blackhole) {
+        blackhole.consume(parseWithNewParser().getSubject());
+        blackhole.consume(parseWithNewParser().get("role", String.class));
+    }
+
+    @Benchmark
+    public void verifyOnceWithCache(Blackhole blackhole) {
+        JWTUtils.TokenClaims claims = jwtUtils.getVerifiedClaims(token);
+        blackhole.consume(claims.username());
+        blackhole.consume(claims.role());
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(JwtVerificationBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
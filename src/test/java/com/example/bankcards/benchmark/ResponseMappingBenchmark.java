@@ -0,0 +1,108 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.mapper.CardMapperForUser;
+import com.example.bankcards.mapper.CardMapperForUserImpl;
+import com.example.bankcards.mapper.UserCardsResponseMapper;
+import com.example.bankcards.mapper.UserCardsResponseMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Формирование ответов по картам: маскирование номера, маппинг страницы карт пользователя
+ * и сериализация ответов в JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private CardMapperForUser cardMapper;
+    private UserCardsResponseMapper responseMapper;
+    private ObjectMapper objectMapper;
+
+    private List<Card> cards;
+    private UserCardsResponseDto userCardsResponse;
+    private AdminCardInfoResponseDto adminCardInfoResponse;
+
+    @Setup
+    public void setUp() {
+        cardMapper = new CardMapperForUserImpl();
+        responseMapper = new UserCardsResponseMapperImpl(cardMapper);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        cards = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> Card.builder()
+                        .cardId(UUID.randomUUID())
+                        .cardNumberLast4("%04d".formatted(i))
+                        .expirationDate(LocalDate.of(2028, 12, 31))
+                        .cardStatus(CardStatus.ACTIVE)
+                        .balance(new BigDecimal("1000.50"))
+                        .build())
+                .toList();
+        userCardsResponse = responseMapper.toResponseDto(1, "MjAyOC0xMi0zMQ", cards);
+        adminCardInfoResponse = AdminCardInfoResponseDto.builder()
+                .cardId(UUID.randomUUID())
+                .cardNumber("1234 5678 9012 5564")
+                .firstAndLastName("Михаил Иванов")
+                .expirationDate(LocalDate.of(2028, 12, 31))
+                .cardStatus(CardStatus.ACTIVE.name())
+                .balance(new BigDecimal("1000.50"))
+                .build();
+    }
+
+    @Benchmark
+    public String maskIt() {
+        return cardMapper.maskIt("5564");
+    }
+
+    @Benchmark
+    public UserCardsResponseDto toResponseDto() {
+        return responseMapper.toResponseDto(1, "MjAyOC0xMi0zMQ", cards);
+    }
+
+    @Benchmark
+    public byte[] serializeUserCardsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userCardsResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeAdminCardInfoResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(adminCardInfoResponse);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(ResponseMappingBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.repository.CardBalanceView;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardBalanceCacheTest {
+    @Mock
+    private CardRepository cardRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardBalanceCache cardBalanceCache;
+    private UUID cardId;
+    private UUID ownerId;
+    private CardBalanceView balance;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardBalanceCache = new CardBalanceCache(cardRepository, meterRegistry, 100, Duration.ofMinutes(1));
+        cardId = UUID.fromString("bfe0dc37-f16d-4d1f-81c9-ef878a721cab");
+        ownerId = UUID.fromString("54e66dce-e870-4d81-8a1a-fff6d2e07d6b");
+        balance = new CardBalanceView(ownerId, BigDecimal.valueOf(456.55), CardStatus.ACTIVE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    class Get {
+        @Test
+        void getReadsRepositoryOnceAndCountsHits() {
+            when(cardRepository.findBalanceViewByCardId(cardId))
+                    .thenReturn(Optional.of(balance));
+
+            cardBalanceCache.get(cardId);
+            CardBalanceView actual = cardBalanceCache.get(cardId);
+
+            assertThat(actual).isEqualTo(balance);
+            verify(cardRepository).findBalanceViewByCardId(cardId);
+            assertThat(meterRegistry.get("cache.gets").tag("cache", "cardBalance").tag("result", "hit")
+                               .functionCounter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("cache.gets").tag("cache", "cardBalance").tag("result", "miss")
+                               .functionCounter().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void getWhenCardNotFound() {
+            when(cardRepository.findBalanceViewByCardId(cardId))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> cardBalanceCache.get(cardId))
+                    .isInstanceOf(CardNotFoundException.class);
+        }
+    }
+
+    @Nested
+    class Evict {
+        @Test
+        void evictForcesNextLoadFromRepository() {
+            when(cardRepository.findBalanceViewByCardId(cardId))
+                    .thenReturn(Optional.of(balance));
+
+            cardBalanceCache.get(cardId);
+            cardBalanceCache.evict(cardId);
+            cardBalanceCache.get(cardId);
+
+            verify(cardRepository, times(2)).findBalanceViewByCardId(cardId);
+        }
+
+        @Test
+        void evictInTransactionEvictsAgainAfterCommit() {
+            CardBalanceView committed = new CardBalanceView(ownerId, BigDecimal.TEN, CardStatus.ACTIVE);
+            when(cardRepository.findBalanceViewByCardId(cardId))
+                    .thenReturn(Optional.of(balance), Optional.of(committed));
+
+            TransactionSynchronizationManager.initSynchronization();
+            cardBalanceCache.evict(cardId);
+            cardBalanceCache.get(cardId);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            assertThat(cardBalanceCache.get(cardId)).isEqualTo(committed);
+        }
+
+        @Test
+        void evictOwnerRemovesAllOwnerCards() {
+            UUID otherCardId = UUID.randomUUID();
+            when(cardRepository.findBalanceViewByCardId(cardId))
+                    .thenReturn(Optional.of(balance));
+            when(cardRepository.findBalanceViewByCardId(otherCardId))
+                    .thenReturn(Optional.of(balance));
+
+            List.of(cardId, otherCardId).forEach(cardBalanceCache::get);
+            cardBalanceCache.evictOwner(ownerId);
+            List.of(cardId, otherCardId).forEach(cardBalanceCache::get);
+
+            verify(cardRepository, times(2)).findBalanceViewByCardId(cardId);
+            verify(cardRepository, times(2)).findBalanceViewByCardId(otherCardId);
+        }
+    }
+}
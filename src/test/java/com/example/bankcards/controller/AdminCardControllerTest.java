@@ -1,32 +1,51 @@
 package com.example.bankcards.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.bankcards.dto.request.BatchCardRequestDto;
 import com.example.bankcards.dto.request.CardInfoRequestDto;
+import com.example.bankcards.dto.request.CardNumberRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
+import com.example.bankcards.dto.response.CardTransactionInfo;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+import com.example.bankcards.exception.CardAlreadyExistsException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.handler.ControllersExceptionHandler;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.CardTransactionService;
+import com.example.bankcards.util.NdjsonStreams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,17 +53,26 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
 class AdminCardControllerTest {
+    private static final Duration STREAM_TIMEOUT = Duration.ofHours(1);
+
     @Mock
     private AdminCardService adminCardService;
+    @Mock
+    private CardTransactionService cardTransactionService;
+    @Spy
+    private NdjsonStreams ndjsonStreams = new NdjsonStreams(new ObjectMapper().findAndRegisterModules(),
+                                                               STREAM_TIMEOUT);
 
     @InjectMocks
     private AdminCardController adminCardController;
 
     private MockMvc mockMvc;
+    private SimpleMeterRegistry meterRegistry;
     private ObjectMapper objectMapper;
 
     private AdminCardInfoResponseDto responseDto;
@@ -55,9 +83,10 @@ class AdminCardControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
         mockMvc = MockMvcBuilders
                 .standaloneSetup(adminCardController)
-                .setControllerAdvice(new ControllersExceptionHandler())
+                .setControllerAdvice(new ControllersExceptionHandler(meterRegistry))
                 .build();
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules();
@@ -66,14 +95,14 @@ class AdminCardControllerTest {
         cardId = "8b52c2e1-8641-4fa9-b983-56042d6ed600";
         responseDto = AdminCardInfoResponseDto.builder()
                 .cardId(UUID.fromString(cardId))
-                .cardNumber("1234 5678 9101 1213")
+                .cardNumber("1234 5678 9101 1219")
                 .firstAndLastName("John Doe")
                 .expirationDate(LocalDate.now().plusYears(1))
                 .cardStatus("ACTIVE")
                 .balance(BigDecimal.valueOf(22.2))
                 .build();
         requestDto = CardInfoRequestDto.builder()
-                .cardNumber("1234 5678 9101 1213")
+                .cardNumber("1234 5678 9101 1219")
                 .userId(userId)
                 .expirationDate(LocalDate.now().plusYears(1))
                 .cardStatus("ACTIVE")
@@ -92,7 +121,7 @@ class AdminCardControllerTest {
             mockMvc.perform(get("/admin/cards/{cardId}", cardId))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.cardNumber").value("1234 5678 9101 1213"))
+                    .andExpect(jsonPath("$.cardNumber").value("1234 5678 9101 1219"))
                     .andExpect(jsonPath("$.firstAndLastName").value("John Doe"))
                     .andExpect(jsonPath("$.cardId").value(cardId))
                     .andDo(print());
@@ -112,6 +141,11 @@ class AdminCardControllerTest {
                     .andDo(print());
 
             verify(adminCardService).getCardInformationById(cardId);
+            assertThat(meterRegistry.get("bankcards.exceptions.handled")
+                               .tag("exception", "CardNotFoundException")
+                               .counter()
+                               .count())
+                    .isEqualTo(1.0);
         }
     }
 
@@ -120,15 +154,106 @@ class AdminCardControllerTest {
         @Test
         @SneakyThrows
         void getAllCardsInformation() {
-            when(adminCardService.getAllCards())
-                    .thenReturn(List.of(responseDto, responseDto));
+            when(adminCardService.getAllCards(null, null, null, null, null, null, null, 20))
+                    .thenReturn(AdminCardsResponseDto.builder()
+                                        .nextCursor("cursor")
+                                        .cards(List.of(responseDto, responseDto))
+                                        .build());
             mockMvc.perform(get("/admin/cards/all"))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$.cards.length()").value(2))
+                    .andExpect(jsonPath("$.nextCursor").value("cursor"))
                     .andDo(print());
 
-            verify(adminCardService).getAllCards();
+            verify(adminCardService).getAllCards(null, null, null, null, null, null, null, 20);
+        }
+
+        @Test
+        @SneakyThrows
+        void getAllCardsInformationWithFilters() {
+            when(adminCardService.getAllCards(userId, LocalDate.parse("2025-01-01"), LocalDate.parse("2030-12-31"),
+                                              "active", new BigDecimal("10.00"), new BigDecimal("500.00"),
+                                              "cursor", 50))
+                    .thenReturn(AdminCardsResponseDto.builder().cards(List.of(responseDto)).build());
+            mockMvc.perform(get("/admin/cards/all")
+                                    .param("userId", userId)
+                                    .param("expireFrom", "2025-01-01")
+                                    .param("expireTo", "2030-12-31")
+                                    .param("cardStatus", "active")
+                                    .param("balanceFrom", "10.00")
+                                    .param("balanceTo", "500.00")
+                                    .param("cursor", "cursor")
+                                    .param("pageSize", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.cards.length()").value(1))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    class GetCardTransactions {
+        @Test
+        @SneakyThrows
+        void getCardTransactions() {
+            when(cardTransactionService.getCardHistory(cardId, "cursor", 50))
+                    .thenReturn(CardTransactionsResponseDto.builder()
+                                        .nextCursor("next")
+                                        .transactions(List.of(CardTransactionInfo.builder()
+                                                                      .operation("TRANSFER_IN")
+                                                                      .amount(BigDecimal.TEN)
+                                                                      .build()))
+                                        .build());
+            mockMvc.perform(get("/admin/cards/{cardId}/transactions", cardId)
+                                    .param("cursor", "cursor")
+                                    .param("pageSize", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions.length()").value(1))
+                    .andExpect(jsonPath("$.transactions[0].operation").value("TRANSFER_IN"))
+                    .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
+    }
+
+    @Nested
+    class GetCardInformationByNumber {
+        @Test
+        @SneakyThrows
+        void getCardInformationByNumber() {
+            when(adminCardService.getCardInformationByNumber("1234 5678 9101 1219"))
+                    .thenReturn(responseDto);
+
+            mockMvc.perform(post("/admin/cards/by-number")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new CardNumberRequestDto("1234 5678 9101 1219"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.cardId").value(cardId))
+                    .andDo(print());
+        }
+
+        @Test
+        @SneakyThrows
+        void getCardInformationByNumberWhenNotFound() {
+            when(adminCardService.getCardInformationByNumber("1234 5678 9101 1219"))
+                    .thenThrow(new CardNotFoundException());
+
+            mockMvc.perform(post("/admin/cards/by-number")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new CardNumberRequestDto("1234 5678 9101 1219"))))
+                    .andExpect(status().isNotFound())
+                    .andDo(print());
+        }
+
+        @Test
+        @SneakyThrows
+        void getCardInformationByNumberWhenNumberInvalid() {
+            mockMvc.perform(post("/admin/cards/by-number")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new CardNumberRequestDto("1234"))))
+                    .andExpect(status().isBadRequest())
+                    .andDo(print());
+
+            verifyNoInteractions(adminCardService);
         }
     }
 
@@ -145,7 +270,7 @@ class AdminCardControllerTest {
                                     .content(objectMapper.writeValueAsString(requestDto)))
                     .andExpect(status().isCreated())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.cardNumber").value("1234 5678 9101 1213"))
+                    .andExpect(jsonPath("$.cardNumber").value("1234 5678 9101 1219"))
                     .andExpect(jsonPath("$.firstAndLastName").value("John Doe"))
                     .andExpect(jsonPath("$.cardId").value(cardId))
                     .andDo(print());
@@ -153,6 +278,20 @@ class AdminCardControllerTest {
             verify(adminCardService).createCard(requestDto);
         }
 
+        @Test
+        @SneakyThrows
+        void createCard_whenCardNumberExists_returnsConflict() {
+            when(adminCardService.createCard(any(CardInfoRequestDto.class)))
+                    .thenThrow(new CardAlreadyExistsException());
+
+            mockMvc.perform(post("/admin/cards")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.error").value("Карта с таким номером уже существует"))
+                    .andDo(print());
+        }
+
         @Test
         @SneakyThrows
         void createCard_whenInvalidInput_returnsBadRequest() {
@@ -162,13 +301,117 @@ class AdminCardControllerTest {
                                     .contentType(MediaType.APPLICATION_JSON)
                                     .content(objectMapper.writeValueAsString(requestDto)))
                     .andExpect(status().isBadRequest())
-                    .andExpect(jsonPath("$.error").value("Номер карты должен выглядеть как 16 цифр в блоках по 4 разделенных пробелом."))
+                    .andExpect(jsonPath("$.error").value("Номер карты должен состоять из 16 цифр в блоках по 4 и проходить проверку по алгоритму Луна."))
+                    .andDo(print());
+
+            verifyNoInteractions(adminCardService);
+        }
+
+        @Test
+        @SneakyThrows
+        void createCard_whenLuhnCheckFails_returnsBadRequest() {
+            requestDto.setCardNumber("1234 5678 9101 1213");
+
+            mockMvc.perform(post("/admin/cards")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(status().isBadRequest())
                     .andDo(print());
 
             verifyNoInteractions(adminCardService);
         }
     }
 
+    @Nested
+    class CreateCards {
+        @Test
+        @SneakyThrows
+        @SuppressWarnings(value = "unchecked")
+        void createCards_streamsResultsAsNdjson() {
+            UUID issuedCardId = UUID.randomUUID();
+            doAnswer(invocation -> {
+                Consumer<List<CardIssueResultInfo>> resultsSink = invocation.getArgument(1);
+                resultsSink.accept(List.of(CardIssueResultInfo.builder().index(1).success(false)
+                                                   .error("Карта с таким номером уже существует").build()));
+                resultsSink.accept(List.of(CardIssueResultInfo.builder().index(0).cardId(issuedCardId).success(true)
+                                                   .build()));
+                return null;
+            }).when(adminCardService).createCards(any(), any());
+
+            MvcResult mvcResult = mockMvc.perform(post("/admin/cards/batch")
+                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                          .content(objectMapper.writeValueAsString(
+                                                                  new BatchCardRequestDto(List.of(requestDto, requestDto)))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(StandardCharsets.UTF_8);
+
+            assertThat(body.lines().toList())
+                    .containsExactly(
+                            "{\"index\":1,\"cardId\":null,\"success\":false,\"error\":\"Карта с таким номером уже существует\"}",
+                            "{\"index\":0,\"cardId\":\"" + issuedCardId + "\",\"success\":true,\"error\":null}");
+        }
+
+        @Test
+        @SneakyThrows
+        void createCards_setsBatchStreamTimeoutOnAsyncRequest() {
+            MvcResult mvcResult = mockMvc.perform(post("/admin/cards/batch")
+                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                          .content(objectMapper.writeValueAsString(
+                                                                  new BatchCardRequestDto(List.of(requestDto)))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertThat(mvcResult.getRequest().getAsyncContext().getTimeout())
+                    .isEqualTo(STREAM_TIMEOUT.toMillis());
+        }
+
+        @Test
+        @SneakyThrows
+        void createCards_whenEmpty_returnsBadRequest() {
+            mockMvc.perform(post("/admin/cards/batch")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BatchCardRequestDto(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(adminCardService);
+        }
+
+        @Test
+        @SneakyThrows
+        void createCards_withInvalidCard_passesItToService() {
+            requestDto.setCardNumber("1111 2222 3333 4445");
+
+            MvcResult mvcResult = mockMvc.perform(post("/admin/cards/batch")
+                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                          .content(objectMapper.writeValueAsString(
+                                                                  new BatchCardRequestDto(List.of(requestDto)))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk());
+
+            verify(adminCardService).createCards(eq(List.of(requestDto)), any());
+        }
+
+        @Test
+        @SneakyThrows
+        void createCards_withNullCard_returnsBadRequestWithIndex() {
+            mockMvc.perform(post("/admin/cards/batch")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"cards\": [" + objectMapper.writeValueAsString(requestDto) + ", null]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("cards[1]: Карта в пакете не может быть null."));
+
+            verifyNoInteractions(adminCardService);
+        }
+    }
+
     @Nested
     class ChangeStatus {
         @Test
@@ -0,0 +1,81 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.dto.response.UserImportResultInfo;
+import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.service.impl.UserDetailsServiceCustomImpl;
+import com.example.bankcards.util.JWTUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Импорт, который пишется дольше таймаута асинхронных запросов Spring MVC (здесь 1 с вместо 30 с у Tomcat),
+ * дописывается до конца: поток ответа живёт по batch.stream-timeout.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.mvc.async.request-timeout=1s", "batch.stream-timeout=30s"})
+class AdminUserControllerStreamTimeoutTest extends AbstractPostgresIntegrationTest {
+    private static final long CHUNK_PAUSE_MILLIS = 1500;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JWTUtils jwtUtils;
+    @Autowired
+    private UserDetailsServiceCustomImpl userDetailsService;
+    @MockitoBean
+    private AdminUserService adminUserService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createUsers_whenImportOutlivesAsyncRequestTimeout_streamsAllChunks() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<UserImportResultInfo>> resultsSink = invocation.getArgument(1);
+            for (int index = 0; index < 3; index++) {
+                if (index > 0) {
+                    Thread.sleep(CHUNK_PAUSE_MILLIS);
+                }
+                resultsSink.accept(List.of(UserImportResultInfo.builder()
+                                                   .index(index)
+                                                   .userId(UUID.randomUUID())
+                                                   .success(true)
+                                                   .build()));
+            }
+            return null;
+        }).when(adminUserService).createUsers(any(), any());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/admin/users/batch"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateToken(
+                        userDetailsService.loadUserByUsername("admin")))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"users": [{"firstAndLastName": "Stream Timeout", "username": "stream-timeout",
+                                    "password": "password", "role": "ROLE_USER"}]}
+                        """))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode())
+                .isEqualTo(200);
+        assertThat(response.body().lines())
+                .hasSize(3)
+                .allSatisfy(line -> assertThat(line).contains("\"success\":true"));
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.bankcards.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.bankcards.dto.request.BatchUserRequestDto;
 import com.example.bankcards.dto.request.UserInfoRequestDto;
 import com.example.bankcards.dto.response.AdminUserInfoResponseDto;
+import com.example.bankcards.dto.response.AdminUsersResponseDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.exception.handler.ControllersExceptionHandler;
 import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.util.NdjsonStreams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -13,19 +18,27 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -33,13 +46,17 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
 class AdminUserControllerTest {
+    private static final Duration STREAM_TIMEOUT = Duration.ofHours(1);
 
     @Mock
     private AdminUserService adminUserService;
+    @Spy
+    private NdjsonStreams ndjsonStreams = new NdjsonStreams(new ObjectMapper(), STREAM_TIMEOUT);
 
     @InjectMocks
     private AdminUserController adminUserController;
@@ -56,7 +73,7 @@ class AdminUserControllerTest {
         MockitoAnnotations.openMocks(this);
         mockMvc = MockMvcBuilders
                 .standaloneSetup(adminUserController)
-                .setControllerAdvice(new ControllersExceptionHandler())
+                .setControllerAdvice(new ControllersExceptionHandler(new SimpleMeterRegistry()))
                 .build();
         objectMapper = new ObjectMapper();
 
@@ -107,6 +124,54 @@ class AdminUserControllerTest {
         }
     }
 
+    @Nested
+    class SearchUsers {
+        @Test
+        @SneakyThrows
+        void searchUsers() {
+            when(adminUserService.searchUsers(null, null, null, 20))
+                    .thenReturn(AdminUsersResponseDto.builder()
+                                        .nextCursor("cursor")
+                                        .users(List.of(responseDto, responseDto))
+                                        .build());
+            mockMvc.perform(get("/admin/users"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.users.length()").value(2))
+                    .andExpect(jsonPath("$.nextCursor").value("cursor"))
+                    .andDo(print());
+
+            verify(adminUserService).searchUsers(null, null, null, 20);
+        }
+
+        @Test
+        @SneakyThrows
+        void searchUsersWithFilters() {
+            when(adminUserService.searchUsers("mi", "Petrov", "cursor", 50))
+                    .thenReturn(AdminUsersResponseDto.builder().users(List.of(responseDto)).build());
+            mockMvc.perform(get("/admin/users")
+                                    .param("username", "mi")
+                                    .param("name", "Petrov")
+                                    .param("cursor", "cursor")
+                                    .param("pageSize", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.users.length()").value(1))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andDo(print());
+        }
+
+        @Test
+        @SneakyThrows
+        void searchUsersWithInvalidCursor_returnsBadRequest() {
+            when(adminUserService.searchUsers(null, null, "bla", 20))
+                    .thenThrow(new IllegalArgumentException("Некорректный курсор пагинации"));
+            mockMvc.perform(get("/admin/users")
+                                    .param("cursor", "bla"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Некорректный курсор пагинации"));
+        }
+    }
+
     @Nested
     class GetAllUserInformation {
         @Test
@@ -178,6 +243,68 @@ class AdminUserControllerTest {
         }
     }
 
+    @Nested
+    class CreateUsers {
+        @Test
+        @SneakyThrows
+        @SuppressWarnings(value = "unchecked")
+        void createUsers_streamsResultsAsNdjson() {
+            doAnswer(invocation -> {
+                Consumer<List<UserImportResultInfo>> resultsSink = invocation.getArgument(1);
+                resultsSink.accept(List.of(UserImportResultInfo.builder().index(1).success(false)
+                                                   .error("Пользователь с таким username уже существует").build()));
+                resultsSink.accept(List.of(UserImportResultInfo.builder().index(0).userId(UUID.fromString(userId))
+                                                   .success(true).build()));
+                return null;
+            }).when(adminUserService).createUsers(any(), any());
+
+            MvcResult mvcResult = mockMvc.perform(post("/admin/users/batch")
+                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                          .content(objectMapper.writeValueAsString(
+                                                                  new BatchUserRequestDto(List.of(requestDto, requestDto)))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(StandardCharsets.UTF_8);
+
+            assertThat(body.lines().toList())
+                    .containsExactly(
+                            "{\"index\":1,\"userId\":null,\"success\":false,\"error\":\"Пользователь с таким username уже существует\"}",
+                            "{\"index\":0,\"userId\":\"" + userId + "\",\"success\":true,\"error\":null}");
+        }
+
+        @Test
+        @SneakyThrows
+        void createUsers_setsBatchStreamTimeoutOnAsyncRequest() {
+            MvcResult mvcResult = mockMvc.perform(post("/admin/users/batch")
+                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                          .content(objectMapper.writeValueAsString(
+                                                                  new BatchUserRequestDto(List.of(requestDto)))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            assertThat(mvcResult.getRequest().getAsyncContext().getTimeout())
+                    .isEqualTo(STREAM_TIMEOUT.toMillis());
+        }
+
+        @Test
+        @SneakyThrows
+        void createUsers_whenInvalidUser_returnsBadRequest() {
+            requestDto.setPassword("");
+
+            mockMvc.perform(post("/admin/users/batch")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BatchUserRequestDto(List.of(requestDto)))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(adminUserService);
+        }
+    }
+
     @Nested
     class UpdateUser {
         @Test
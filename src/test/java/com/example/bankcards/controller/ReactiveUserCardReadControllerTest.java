@@ -0,0 +1,141 @@
+package com.example.bankcards.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.bankcards.dto.response.UserCardInfo;
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.exception.handler.ControllersExceptionHandler;
+import com.example.bankcards.service.ReactiveUserCardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class ReactiveUserCardReadControllerTest {
+
+    @Mock
+    private ReactiveUserCardService reactiveUserCardService;
+    @InjectMocks
+    private ReactiveUserCardReadController reactiveUserCardReadController;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    private UserCardsResponseDto responseDto;
+    private LocalDate expirationDate;
+    private String userId;
+    private String cardId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(reactiveUserCardReadController)
+                .setControllerAdvice(new ControllersExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+        objectMapper = new ObjectMapper();
+
+        userId = "48fbd421-27d7-487e-b1bb-4b38fe0aba58";
+        cardId = "c9a692ba-7e4e-45ed-955b-91527b71e3d4";
+        expirationDate = LocalDate.now().plusYears(1);
+
+        responseDto = UserCardsResponseDto.builder()
+                .totalPages(1)
+                .cards(List.of(UserCardInfo.builder().build(), UserCardInfo.builder().build()))
+                .build();
+    }
+
+    @Nested
+    class GetAllCardsInformation {
+        @Test
+        @SneakyThrows
+        void getAllCardsInformation_withParameters() {
+            when(reactiveUserCardService.getAllCards(userId, expirationDate.minusYears(1), expirationDate, "ACTIVE", 2, 10,
+                                                     null, true))
+                    .thenReturn(Mono.just(responseDto));
+
+            MvcResult result = mockMvc.perform(get("/user/all")
+                                                       .header("userId", userId)
+                                                       .param("expireFrom", expirationDate.minusYears(1).toString())
+                                                       .param("expireTo", expirationDate.toString())
+                                                       .param("cardStatus", "ACTIVE")
+                                                       .param("page", "2")
+                                                       .param("pageSize", "10")
+                                                       .param("withTotalPages", "true")
+                                                       .accept(MediaType.APPLICATION_JSON))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(objectMapper.writeValueAsString(responseDto)))
+                    .andDo(print());
+        }
+
+        @Test
+        @SneakyThrows
+        void getAllCardsInformation_InvalidUUID_ReturnsBadRequest() {
+            mockMvc.perform(get("/user/all")
+                                    .header("userId", "invalid-uuid")
+                                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(reactiveUserCardService);
+        }
+    }
+
+    @Nested
+    class GetBalance {
+        @Test
+        @SneakyThrows
+        void getBalance_ReturnsOkAndBalanceString() {
+            when(reactiveUserCardService.getBalance(userId, cardId)).thenReturn(Mono.just("1500.75"));
+
+            MvcResult result = mockMvc.perform(get("/user/balance/{cardId}", cardId)
+                                                       .header("userId", userId)
+                                                       .accept(MediaType.TEXT_PLAIN))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("text/plain;charset=UTF-8"))
+                    .andExpect(content().string("1500.75"));
+        }
+
+        @Test
+        @SneakyThrows
+        void getBalance_whenCardNotBelongsToUser() {
+            when(reactiveUserCardService.getBalance(userId, cardId)).thenReturn(Mono.error(new CardNotBelongsToUserException()));
+
+            MvcResult result = mockMvc.perform(get("/user/balance/{cardId}", cardId)
+                                                       .header("userId", userId))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+    }
+}
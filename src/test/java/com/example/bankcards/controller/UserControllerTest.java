@@ -1,10 +1,18 @@
 package com.example.bankcards.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.example.bankcards.dto.response.UserCardInfo;
-import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.dto.request.BatchTransferRequestDto;
+import com.example.bankcards.dto.request.TransferInfoRequestDto;
+import com.example.bankcards.dto.response.BatchTransferResponseDto;
+import com.example.bankcards.dto.response.CardTransactionInfo;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+import com.example.bankcards.dto.response.TransferResultInfo;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
 import com.example.bankcards.exception.handler.ControllersExceptionHandler;
+import com.example.bankcards.service.CardTransactionService;
 import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -18,14 +26,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -33,14 +43,14 @@ class UserControllerTest {
 
     @Mock
     private UserService userService;
+    @Mock
+    private CardTransactionService cardTransactionService;
     @InjectMocks
     private UserController userController;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
-    private UserCardsResponseDto responseDto;
-    private LocalDate expirationDate;
     private String userId;
     private String cardId;
     private String cardId2;
@@ -50,71 +60,13 @@ class UserControllerTest {
         MockitoAnnotations.openMocks(this);
         mockMvc = MockMvcBuilders
                 .standaloneSetup(userController)
-                .setControllerAdvice(new ControllersExceptionHandler())
+                .setControllerAdvice(new ControllersExceptionHandler(new SimpleMeterRegistry()))
                 .build();
         objectMapper = new ObjectMapper();
 
         userId = "48fbd421-27d7-487e-b1bb-4b38fe0aba58";
         cardId = "c9a692ba-7e4e-45ed-955b-91527b71e3d4";
         cardId2 = "55a692ba-7e4e-45ed-955b-91527b71e3d4";
-        expirationDate = LocalDate.now().plusYears(1);
-
-        responseDto = UserCardsResponseDto.builder()
-                .totalPages(1)
-                .cards(List.of(UserCardInfo.builder().build(), UserCardInfo.builder().build()))
-                .build();
-    }
-
-    @Nested
-    class GetAllCardsInformation {
-        @Test
-        @SneakyThrows
-        void getAllCardsInformation_withParameters() {
-            String cardStatus = "ACTIVE";
-            int page = 2;
-            int pageSize = 10;
-
-            when(userService.getAllCards(userId, expirationDate.minusYears(1), expirationDate, cardStatus, page, pageSize))
-                    .thenReturn(responseDto);
-
-            mockMvc.perform(get("/user/all")
-                                    .header("userId", userId)
-                                    .param("expireFrom", expirationDate.minusYears(1).toString())
-                                    .param("expireTo", expirationDate.toString())
-                                    .param("cardStatus", cardStatus)
-                                    .param("page", String.valueOf(page))
-                                    .param("pageSize", String.valueOf(pageSize))
-                                    .accept(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk())
-                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(content().json(objectMapper.writeValueAsString(responseDto)))
-                    .andDo(print());
-        }
-
-        @Test
-        @SneakyThrows
-        void getAllCardsInformation_withoutParameters() {
-            when(userService.getAllCards(userId, null, null, null, 1, 5))
-                    .thenReturn(responseDto);
-
-            mockMvc.perform(get("/user/all")
-                                    .header("userId", userId)
-                                    .accept(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk())
-                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(content().json(objectMapper.writeValueAsString(responseDto)));
-        }
-
-        @Test
-        @SneakyThrows
-        void getAllCardsInformation_InvalidUUID_ReturnsBadRequest() {
-            String invalidUserId = "invalid-uuid";
-
-            mockMvc.perform(get("/user/all")
-                                    .header("userId", invalidUserId)
-                                    .accept(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isBadRequest());
-        }
     }
 
     @Test
@@ -140,7 +92,7 @@ class UserControllerTest {
             String successMessage = "Сумма успешно переведена между картами";
             double amount = 55.5;
 
-            when(userService.transfer(userId, cardId, cardId2, BigDecimal.valueOf(amount)))
+            when(userService.transfer(userId, cardId, cardId2, BigDecimal.valueOf(amount), null))
                     .thenReturn(successMessage);
 
             mockMvc.perform(put("/user/transfer")
@@ -154,6 +106,45 @@ class UserControllerTest {
                     .andExpect(content().string(successMessage));
         }
 
+        @Test
+        @SneakyThrows
+        void transferBetweenCards_passesIdempotencyKey() {
+            String successMessage = "Сумма успешно переведена между картами";
+            String idempotencyKey = "5f0c6a4e-3b1d-4c8e-9a7f-2d6b1e8c4a90";
+
+            when(userService.transfer(userId, cardId, cardId2, BigDecimal.valueOf(10), idempotencyKey))
+                    .thenReturn(successMessage);
+
+            mockMvc.perform(put("/user/transfer")
+                                    .header("userId", userId)
+                                    .header("Idempotency-Key", idempotencyKey)
+                                    .param("idCardFrom", cardId)
+                                    .param("idCardTo", cardId2)
+                                    .param("amount", "10")
+                                    .accept(MediaType.TEXT_PLAIN))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(successMessage));
+        }
+
+        @Test
+        @SneakyThrows
+        void transferBetweenCards_whenIdempotencyKeyReused() {
+            String idempotencyKey = "5f0c6a4e-3b1d-4c8e-9a7f-2d6b1e8c4a90";
+
+            when(userService.transfer(userId, cardId, cardId2, BigDecimal.valueOf(10), idempotencyKey))
+                    .thenThrow(new IdempotencyKeyReusedException());
+
+            mockMvc.perform(put("/user/transfer")
+                                    .header("userId", userId)
+                                    .header("Idempotency-Key", idempotencyKey)
+                                    .param("idCardFrom", cardId)
+                                    .param("idCardTo", cardId2)
+                                    .param("amount", "10"))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.error")
+                                       .value("Ключ идемпотентности уже использован для перевода с другими параметрами"));
+        }
+
         @Test
         @SneakyThrows
         void transferBetweenCards_whenForgetAmount() {
@@ -166,17 +157,92 @@ class UserControllerTest {
         }
     }
 
-    @Test
-    void getBalance_ReturnsOkAndBalanceString() throws Exception {
-        String balance = "1500.75";
+    @Nested
+    class TransferBatch {
+        @Test
+        @SneakyThrows
+        void transferBatch_whenOk() {
+            List<TransferInfoRequestDto> transfers = List.of(
+                    new TransferInfoRequestDto(cardId, cardId2, BigDecimal.valueOf(10)),
+                    new TransferInfoRequestDto(cardId2, cardId, BigDecimal.valueOf(5)));
+            BatchTransferResponseDto response = BatchTransferResponseDto.builder()
+                    .succeeded(2)
+                    .failed(0)
+                    .results(List.of(TransferResultInfo.builder().index(0).success(true).build(),
+                                     TransferResultInfo.builder().index(1).success(true).build()))
+                    .build();
+
+            when(userService.transferBatch(userId, transfers))
+                    .thenReturn(response);
+
+            mockMvc.perform(post("/user/transfers/batch")
+                                    .header("userId", userId)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(transfers))))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(objectMapper.writeValueAsString(response)));
+        }
 
-        when(userService.getBalance(userId, cardId)).thenReturn(balance);
+        @Test
+        @SneakyThrows
+        void transferBatch_whenEmpty() {
+            mockMvc.perform(post("/user/transfers/batch")
+                                    .header("userId", userId)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(List.of()))))
+                    .andExpect(status().isBadRequest());
 
-        mockMvc.perform(get("/user/balance/{cardId}", cardId)
-                                .header("userId", userId)
-                                .accept(MediaType.TEXT_PLAIN))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType("text/plain;charset=UTF-8"))
-                .andExpect(content().string(balance));
+            verifyNoInteractions(userService);
+        }
+
+        @Test
+        @SneakyThrows
+        void transferBatch_whenAmountNotPositive() {
+            List<TransferInfoRequestDto> transfers = List.of(
+                    new TransferInfoRequestDto(cardId, cardId2, BigDecimal.valueOf(-10)));
+
+            mockMvc.perform(post("/user/transfers/batch")
+                                    .header("userId", userId)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(transfers))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(userService);
+        }
+    }
+
+    @Nested
+    class GetCardTransactions {
+        @Test
+        @SneakyThrows
+        void getCardTransactions_whenOk() {
+            when(cardTransactionService.getUserCardHistory(userId, cardId, null, 20))
+                    .thenReturn(CardTransactionsResponseDto.builder()
+                                        .transactions(List.of(CardTransactionInfo.builder()
+                                                                      .operation("TRANSFER_OUT")
+                                                                      .amount(BigDecimal.valueOf(-10))
+                                                                      .build()))
+                                        .build());
+
+            mockMvc.perform(get("/user/transactions/{cardId}", cardId)
+                                    .header("userId", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.transactions[0].operation").value("TRANSFER_OUT"))
+                    .andExpect(jsonPath("$.transactions[0].amount").value(-10))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @SneakyThrows
+        void getCardTransactions_whenCardNotBelongsToUser() {
+            when(cardTransactionService.getUserCardHistory(userId, cardId, null, 20))
+                    .thenThrow(new CardNotBelongsToUserException());
+
+            mockMvc.perform(get("/user/transactions/{cardId}", cardId)
+                                    .header("userId", userId))
+                    .andExpect(status().isBadRequest());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.job;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardExpirationJobConcurrencyTest extends AbstractPostgresIntegrationTest {
+    @Autowired
+    private CardExpirationJob cardExpirationJob;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Card expired;
+    private Card lockedExpired;
+    private Card valid;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                                           .firstAndLastName("Card Expiry")
+                                           .username("expiry-" + UUID.randomUUID())
+                                           .password("password")
+                                           .role(UserRole.ROLE_USER)
+                                           .build());
+        expired = cardRepository.save(newCard("4000 0000 0000 0002", LocalDate.now().minusDays(1)));
+        lockedExpired = cardRepository.save(newCard("4000 0000 0000 0010", LocalDate.now().minusMonths(1)));
+        valid = cardRepository.save(newCard("4000 0000 0000 0028", LocalDate.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllById(List.of(expired.getCardId(), lockedExpired.getCardId(), valid.getCardId()));
+        userRepository.deleteById(user.getUserId());
+    }
+
+    @Test
+    void expireCards_skipsCardsLockedByTransfersAndResumesOnNextRun() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> transfer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                cardRepository.findAllByIdForUpdate(List.of(lockedExpired.getCardId()));
+                locked.countDown();
+                try {
+                    release.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(1, TimeUnit.MINUTES)).isTrue();
+
+            cardExpirationJob.expireCards();
+
+            assertThat(statusOf(expired)).isEqualTo(CardStatus.EXPIRED);
+            assertThat(statusOf(lockedExpired)).isEqualTo(CardStatus.ACTIVE);
+            assertThat(statusOf(valid)).isEqualTo(CardStatus.ACTIVE);
+
+            release.countDown();
+            transfer.get(1, TimeUnit.MINUTES);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        cardExpirationJob.expireCards();
+
+        assertThat(statusOf(lockedExpired)).isEqualTo(CardStatus.EXPIRED);
+        assertThat(statusOf(valid)).isEqualTo(CardStatus.ACTIVE);
+    }
+
+    private CardStatus statusOf(Card card) {
+        return cardRepository.findById(card.getCardId()).orElseThrow().getCardStatus();
+    }
+
+    private Card newCard(String cardNumber, LocalDate expirationDate) {
+        return Card.builder()
+                .cardNumber(cardNumber)
+                .user(user)
+                .expirationDate(expirationDate)
+                .cardStatus(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.job;
+
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpirationJobTest {
+    @Mock
+    private CardRepository cardRepository;
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpirationJob cardExpirationJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardExpirationJob = new CardExpirationJob(cardRepository, cardBalanceCache, meterRegistry, 2, Duration.ZERO);
+    }
+
+    @Test
+    void expireCardsRepeatsWhileBatchIsFull() {
+        List<UUID> firstBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> lastBatch = List.of(UUID.randomUUID());
+        when(cardRepository.expireBatch(2))
+                .thenReturn(firstBatch, lastBatch);
+
+        cardExpirationJob.expireCards();
+
+        verify(cardRepository, times(2)).expireBatch(2);
+        verify(cardBalanceCache).evict(firstBatch);
+        verify(cardBalanceCache).evict(lastBatch);
+        assertThat(meterRegistry.get("bankcards.cards.expired").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("bankcards.cards.expiry.batch").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void expireCardsWhenNothingExpired() {
+        when(cardRepository.expireBatch(2))
+                .thenReturn(List.of());
+
+        cardExpirationJob.expireCards();
+
+        verify(cardRepository).expireBatch(2);
+        verify(cardBalanceCache, never()).evict(anyCollection());
+    }
+}
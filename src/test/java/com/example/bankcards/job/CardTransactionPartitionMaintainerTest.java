@@ -0,0 +1,84 @@
+package com.example.bankcards.job;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardTransactionPartitionMaintainerTest extends AbstractPostgresIntegrationTest {
+    private static final List<String> TEST_PARTITIONS = List.of("card_transactions_2001_01", "card_transactions_2001_02",
+                                                                "card_transactions_2001_03", "card_transactions_2001_04");
+
+    @Autowired
+    private CardTransactionPartitionMaintainer maintainer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TEST_PARTITIONS.forEach(partition -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition));
+    }
+
+    @Test
+    void oldPartitionsAreDetachedButKept() {
+        maintainer.createPartitions(YearMonth.of(2001, 1));
+
+        assertThat(attachedPartitions())
+                .containsAll(TEST_PARTITIONS);
+
+        maintainer.detachPartitionsBefore(YearMonth.of(2001, 3));
+
+        assertThat(attachedPartitions())
+                .doesNotContain("card_transactions_2001_01", "card_transactions_2001_02")
+                .contains("card_transactions_2001_03", "card_transactions_2001_04");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pg_class WHERE relname = ?",
+                                               Integer.class, "card_transactions_2001_01"))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void missingPartitionsReportsAbsentAndDetachedMonths() {
+        assertThat(maintainer.missingPartitions(YearMonth.of(2001, 1)))
+                .containsExactly("card_transactions_2001_01", "card_transactions_2001_02");
+
+        maintainer.createPartitions(YearMonth.of(2001, 1));
+
+        assertThat(maintainer.missingPartitions(YearMonth.of(2001, 1)))
+                .isEmpty();
+
+        maintainer.detachPartitionsBefore(YearMonth.of(2001, 3));
+
+        assertThat(maintainer.missingPartitions(YearMonth.of(2001, 2)))
+                .containsExactly("card_transactions_2001_02");
+    }
+
+    @Test
+    void currentAndNextMonthPartitionsExistAfterStartup() {
+        assertThat(maintainer.missingPartitions(YearMonth.now(ZoneOffset.UTC)))
+                .isEmpty();
+    }
+
+    @Test
+    void currentMonthPartitionExistsAfterStartup() {
+        String current = "card_transactions_" + YearMonth.now(ZoneOffset.UTC).toString().replace('-', '_');
+
+        assertThat(attachedPartitions())
+                .contains(current);
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                                                 SELECT c.relname
+                                                 FROM pg_inherits i
+                                                          JOIN pg_class c ON c.oid = i.inhrelid
+                                                 WHERE i.inhparent = 'card_transactions'::regclass
+                                                 """, String.class);
+    }
+}
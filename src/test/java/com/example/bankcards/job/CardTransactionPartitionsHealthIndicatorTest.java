@@ -0,0 +1,41 @@
+package com.example.bankcards.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CardTransactionPartitionsHealthIndicatorTest {
+    private final CardTransactionPartitionMaintainer maintainer = mock(CardTransactionPartitionMaintainer.class);
+    private final CardTransactionPartitionsHealthIndicator healthIndicator =
+            new CardTransactionPartitionsHealthIndicator(maintainer);
+
+    @Test
+    void healthIsUpWhenPartitionsExist() {
+        when(maintainer.missingPartitions(any(YearMonth.class)))
+                .thenReturn(List.of());
+
+        assertThat(healthIndicator.health().getStatus())
+                .isEqualTo(Status.UP);
+    }
+
+    @Test
+    void healthIsDownWithMissingPartitions() {
+        when(maintainer.missingPartitions(any(YearMonth.class)))
+                .thenReturn(List.of("card_transactions_2001_02"));
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus())
+                .isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+                .containsEntry("missingPartitions", List.of("card_transactions_2001_02"));
+    }
+}
@@ -38,6 +38,7 @@ class CardMapperForUserTest {
         card = Card.builder()
                 .cardId(UUID.fromString(cardId))
                 .cardNumber(cardNumber)
+                .cardNumberLast4("1231")
                 .user(User.builder()
                               .userId(UUID.fromString(userId))
                               .build())
@@ -59,9 +60,17 @@ class CardMapperForUserTest {
         assertThat(actual).isEqualTo(userCardInfo);
     }
 
+    @Test
+    void fromCardToUserCardInfoDoesNotReadCardNumber() {
+        card.setCardNumber(null);
+
+        UserCardInfo actual = mapper.fromCardToUserCardInfo(card);
+        assertThat(actual).isEqualTo(userCardInfo);
+    }
+
     @Test
     void maskIt() {
-        String actual = mapper.maskIt(cardNumber);
+        String actual = mapper.maskIt("1231");
         assertThat(actual).isEqualTo(maskedCardNumber);
     }
 }
\ No newline at end of file
@@ -38,11 +38,12 @@ class UserCardsResponseMapperTest {
         when(cardMapper.fromCardToUserCardInfo(any(Card.class)))
                 .thenReturn(new UserCardInfo());
 
-        UserCardsResponseDto actual = mapper.toResponseDto(totalPages, cards);
+        UserCardsResponseDto actual = mapper.toResponseDto(totalPages, "cursor", cards);
 
         assertThat(actual)
                 .isInstanceOf(UserCardsResponseDto.class);
         assertThat(actual.getTotalPages()).isEqualTo(totalPages);
+        assertThat(actual.getNextCursor()).isEqualTo("cursor");
         assertThat(actual.getCards())
                 .isNotEmpty()
                 .hasSize(2);
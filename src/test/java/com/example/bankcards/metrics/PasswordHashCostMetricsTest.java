@@ -0,0 +1,70 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.RehashingBCryptPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashCostMetricsTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashCostMetrics passwordHashCostMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashCostMetrics = new PasswordHashCostMetrics(userRepository, new RehashingBCryptPasswordEncoder(11),
+                                                              meterRegistry);
+    }
+
+    @Test
+    void snapshotPublishesUsersByCostAndDropsStaleCosts() {
+        when(userRepository.countUsersByPasswordCost())
+                .thenReturn(List.of(costCount("12", 2), costCount("10", 5)),
+                            List.of(costCount("11", 7)));
+
+        passwordHashCostMetrics.snapshot();
+
+        assertThat(meterRegistry.get("bankcards.password.hash.users").tag("cost", "12").gauge().value())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("bankcards.password.hash.users").tag("cost", "10").gauge().value())
+                .isEqualTo(5);
+        assertThat(meterRegistry.get("bankcards.password.bcrypt.cost").gauge().value())
+                .isEqualTo(11);
+
+        passwordHashCostMetrics.snapshot();
+
+        assertThat(meterRegistry.find("bankcards.password.hash.users").gauges())
+                .singleElement()
+                .satisfies(gauge -> {
+                    assertThat(gauge.getId().getTag("cost")).isEqualTo("11");
+                    assertThat(gauge.value()).isEqualTo(7);
+                });
+    }
+
+    private static UserRepository.PasswordCostCount costCount(String cost, long users) {
+        return new UserRepository.PasswordCostCount() {
+            @Override
+            public String getCost() {
+                return cost;
+            }
+
+            @Override
+            public long getUsers() {
+                return users;
+            }
+        };
+    }
+}
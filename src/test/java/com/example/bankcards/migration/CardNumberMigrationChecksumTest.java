@@ -0,0 +1,97 @@
+package com.example.bankcards.migration;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+/**
+ * Повторный запуск миграций с другими ключами, как при перезапуске приложения после смены настроек:
+ * ключи не входят в контрольные суммы, поэтому валидация уже применённых changeSet проходит.
+ */
+class CardNumberMigrationChecksumTest extends AbstractPostgresIntegrationTest {
+    private static final String KEY_2 = "q2m8Jt0Ck5m1yq0H7wR0b3m0Qm3m1V9cE3Hh0bqvJ1o=";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private LiquibaseProperties liquibaseProperties;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void update_withChangedHmacKey_passesValidation() {
+        assertThatNoException().isThrownBy(() -> update(Map.of(
+                "cardNumberHmacKey", "0f14d5c2a9e84b7d93c6a1e2f5b8d7c4")));
+    }
+
+    @Test
+    void update_withSecondKeyVersion_passesValidationAndKeepsStoredNumbers() {
+        User user = userRepository.save(User.builder()
+                                                .firstAndLastName("Key Rotation")
+                                                .username("rotation-" + UUID.randomUUID())
+                                                .password("password")
+                                                .role(UserRole.ROLE_USER)
+                                                .build());
+        Card card = cardRepository.save(Card.builder()
+                                                .cardNumber("4000 0000 0000 0259")
+                                                .user(user)
+                                                .expirationDate(LocalDate.now().plusYears(2))
+                                                .cardStatus(CardStatus.ACTIVE)
+                                                .balance(BigDecimal.TEN)
+                                                .build());
+        try {
+            byte[] stored = storedNumber(card);
+
+            assertThatNoException().isThrownBy(() -> update(Map.of(
+                    "encryptionKey", "another-legacy-passphrase",
+                    "cardEncryptionKeyVersion", "2",
+                    "cardEncryptionKey", KEY_2)));
+
+            assertThat(storedNumber(card))
+                    .isEqualTo(stored);
+        } finally {
+            cardRepository.deleteById(card.getCardId());
+            userRepository.deleteById(user.getUserId());
+        }
+    }
+
+    private byte[] storedNumber(Card card) {
+        return jdbcTemplate.queryForObject("SELECT card_number FROM cards WHERE card_id = ?", byte[].class, card.getCardId());
+    }
+
+    private void update(Map<String, String> changedParameters) throws Exception {
+        Map<String, String> parameters = new HashMap<>(liquibaseProperties.getParameters());
+        parameters.putAll(changedParameters);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(liquibaseProperties.getChangeLog());
+        liquibase.setChangeLogParameters(parameters);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.CardCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что горячие запросы по картам могут обойтись без полного чтения таблицы cards.
+ * SQL берётся у Hibernate, план строится QueryPlanExplainer: если подходящего индекса нет, тест упадёт на Seq Scan.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.bankcards.repository.SqlCapturingStatementInspector")
+class CardQueryPlanTest extends AbstractPostgresIntegrationTest {
+    private static final Set<String> LISTING_INDEXES = Set.of(
+            "idx_cards_user_id_expiration_date_card_id",
+            "idx_cards_expiration_date_card_id");
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AdminCardService adminCardService;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    private String userId;
+    private String cursor;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID().toString();
+        cursor = new CardCursor(LocalDate.now(), UUID.randomUUID()).encode();
+        SqlCapturingStatementInspector.clear();
+    }
+
+    @Test
+    void userCardsFirstPage_usesListingIndex() {
+        userService.getAllCards(userId, null, null, null, 1, 5, null, false);
+
+        assertCardsScannedBy(cardsQuery(), LISTING_INDEXES);
+    }
+
+    @Test
+    void userCardsWithFiltersAndCursor_usesListingIndex() {
+        userService.getAllCards(userId, LocalDate.now(), LocalDate.now().plusYears(3), "active", 1, 5, cursor, false);
+
+        assertCardsScannedBy(cardsQuery(), LISTING_INDEXES);
+    }
+
+    @Test
+    void userCardsCount_usesListingIndex() {
+        userService.getAllCards(userId, null, null, null, 1, 5, null, true);
+
+        String countQuery = SqlCapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains("count("))
+                .findFirst()
+                .orElseThrow();
+        assertCardsScannedBy(countQuery, LISTING_INDEXES);
+    }
+
+    @Test
+    void adminCardsForUser_usesListingIndex() {
+        adminCardService.getAllCards(userId, null, null, null, null, null, cursor, 20);
+
+        assertCardsScannedBy(cardsQuery(), LISTING_INDEXES);
+    }
+
+    @Test
+    void adminCardsWithoutFilters_usesListingIndex() {
+        adminCardService.getAllCards(null, null, null, null, null, null, cursor, 20);
+
+        assertCardsScannedBy(cardsQuery(), LISTING_INDEXES);
+    }
+
+    @Test
+    void cardExpiryBatch_usesActiveExpirationIndex() {
+        cardRepository.expireBatch(0);
+
+        String expiryQuery = SqlCapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains("'EXPIRED'"))
+                .findFirst()
+                .orElseThrow();
+        assertCardsScannedBy(expiryQuery, Set.of("idx_cards_active_expiration_date_card_id", "pk_cards"));
+    }
+
+    private String cardsQuery() {
+        return SqlCapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains(" from cards ") && sql.contains("order by"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void assertCardsScannedBy(String sql, Set<String> expectedIndexes) {
+        assertThat(new QueryPlanExplainer(connectionDetails).scansOf(sql, "cards"))
+                .as("план запроса %s", sql)
+                .isNotEmpty()
+                .allSatisfy(node -> {
+                    assertThat(node.path("Node Type").asText()).isNotEqualTo("Seq Scan");
+                    assertThat(node.findValuesAsText("Index Name")).isNotEmpty().isSubsetOf(expectedIndexes);
+                });
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Строит план SQL, захваченного у Hibernate, через EXPLAIN (GENERIC_PLAN) при выключенном seq scan:
+ * если подходящего индекса нет, PostgreSQL всё равно выберет Seq Scan.
+ */
+class QueryPlanExplainer {
+    private final JdbcConnectionDetails connectionDetails;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    QueryPlanExplainer(JdbcConnectionDetails connectionDetails) {
+        this.connectionDetails = connectionDetails;
+    }
+
+    /**
+     * Узлы плана, читающие таблицу relation. В settings - дополнительные SET для сессии, в которой строится план.
+     */
+    List<JsonNode> scansOf(String sql, String relation, String... settings) {
+        List<JsonNode> scans = new ArrayList<>();
+        collectScans(explain(sql, settings), relation, scans);
+        return scans;
+    }
+
+    private void collectScans(JsonNode node, String relation, List<JsonNode> scans) {
+        if (relation.equals(node.path("Relation Name").asText())) {
+            scans.add(node);
+        }
+        node.path("Plans").forEach(child -> collectScans(child, relation, scans));
+    }
+
+    /**
+     * Отдельное соединение в simple query mode: в extended protocol драйвер отправил бы $1... как параметры запроса.
+     */
+    @SneakyThrows
+    private JsonNode explain(String sql, String... settings) {
+        Properties properties = new Properties();
+        properties.setProperty("user", connectionDetails.getUsername());
+        properties.setProperty("password", connectionDetails.getPassword());
+        properties.setProperty("preferQueryMode", "simple");
+        try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(), properties);
+             Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+            for (String setting : settings) {
+                statement.execute(setting);
+            }
+            try (ResultSet resultSet = statement.executeQuery(
+                    "explain (generic_plan, format json) " + toPositionalParameters(sql))) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private static String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder();
+        int parameter = 0;
+        for (char symbol : sql.toCharArray()) {
+            if (symbol == '?') {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(symbol);
+            }
+        }
+        return result.toString();
+    }
+}
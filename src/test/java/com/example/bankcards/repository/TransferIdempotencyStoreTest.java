@@ -0,0 +1,158 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdempotencyStoreTest {
+    private static final String RESPONSE = "Сумма успешно переведена между картами";
+
+    @Mock
+    private TransferIdempotencyKeyRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransferIdempotencyStore store;
+    private UUID userId;
+    private byte[] fingerprint;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new TransferIdempotencyStore(repository, meterRegistry, Duration.ofHours(24), 100,
+                                             Duration.ofMinutes(10), 2);
+        userId = UUID.fromString("54e66dce-e870-4d81-8a1a-fff6d2e07d6b");
+        fingerprint = TransferIdempotencyStore.fingerprint(
+                UUID.fromString("bfe0dc37-f16d-4d1f-81c9-ef878a721cab"),
+                UUID.fromString("3c24223c-ac3d-4c91-bf7b-dbe625580261"),
+                new BigDecimal("5.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void fingerprintIgnoresAmountScale() {
+        assertThat(TransferIdempotencyStore.fingerprint(
+                UUID.fromString("bfe0dc37-f16d-4d1f-81c9-ef878a721cab"),
+                UUID.fromString("3c24223c-ac3d-4c91-bf7b-dbe625580261"),
+                BigDecimal.valueOf(5)))
+                .isEqualTo(fingerprint);
+    }
+
+    @Nested
+    class Claim {
+        @Test
+        void claimNewKey() {
+            when(repository.claim(userId, "key-1", fingerprint, Duration.ofHours(24).toSeconds()))
+                    .thenReturn(1);
+
+            assertThat(store.claim(userId, "key-1", fingerprint)).isEmpty();
+            verify(repository, never()).findById(any());
+        }
+
+        @Test
+        void claimTakenKeyReturnsStoredResponse() {
+            when(repository.claim(userId, "key-1", fingerprint, Duration.ofHours(24).toSeconds()))
+                    .thenReturn(0);
+            when(repository.findById(new TransferIdempotencyKey.Id(userId, "key-1")))
+                    .thenReturn(Optional.of(TransferIdempotencyKey.builder()
+                                                    .requestHash(fingerprint)
+                                                    .response(RESPONSE)
+                                                    .build()));
+
+            assertThat(store.claim(userId, "key-1", fingerprint)).contains(RESPONSE);
+            assertThat(store.claim(userId, "key-1", fingerprint)).contains(RESPONSE);
+
+            verify(repository).claim(any(), anyString(), any(), anyLong());
+            assertThat(meterRegistry.get("bankcards.transfers.idempotent.replayed").tag("source", "database")
+                               .counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("bankcards.transfers.idempotent.replayed").tag("source", "cache")
+                               .counter().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void claimWithDifferentRequest() {
+            when(repository.claim(userId, "key-1", fingerprint, Duration.ofHours(24).toSeconds()))
+                    .thenReturn(0);
+            when(repository.findById(new TransferIdempotencyKey.Id(userId, "key-1")))
+                    .thenReturn(Optional.of(TransferIdempotencyKey.builder()
+                                                    .requestHash(new byte[32])
+                                                    .response(RESPONSE)
+                                                    .build()));
+
+            assertThatThrownBy(() -> store.claim(userId, "key-1", fingerprint))
+                    .isInstanceOf(IdempotencyKeyReusedException.class);
+        }
+    }
+
+    @Nested
+    class Complete {
+        @Test
+        void completedKeyIsReplayedFromCacheAfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            store.complete(userId, "key-1", fingerprint, RESPONSE);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            assertThat(store.claim(userId, "key-1", fingerprint)).contains(RESPONSE);
+            verify(repository).complete(userId, "key-1", RESPONSE);
+            verify(repository, never()).claim(any(), anyString(), any(), anyLong());
+        }
+
+        @Test
+        void rolledBackKeyIsNotCached() {
+            TransactionSynchronizationManager.initSynchronization();
+            store.complete(userId, "key-1", fingerprint, RESPONSE);
+            TransactionSynchronizationManager.clearSynchronization();
+            when(repository.claim(userId, "key-1", fingerprint, Duration.ofHours(24).toSeconds()))
+                    .thenReturn(1);
+
+            assertThat(store.claim(userId, "key-1", fingerprint)).isEmpty();
+        }
+    }
+
+    @Nested
+    class DeleteExpired {
+        @Test
+        void deleteExpiredRepeatsWhileBatchIsFull() {
+            when(repository.deleteExpired(2))
+                    .thenReturn(2, 2, 1);
+
+            store.deleteExpired();
+
+            verify(repository, times(3)).deleteExpired(anyInt());
+        }
+    }
+}
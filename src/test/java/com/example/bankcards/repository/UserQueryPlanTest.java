@@ -0,0 +1,77 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.util.UserCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что поиск пользователей администратором не читает таблицу users целиком.
+ * На почти пустой таблице планировщику выгоднее пройти индекс по username с фильтром, поэтому для поиска
+ * по фильтрам обычный index scan выключается, а курсор не передаётся: тогда остаётся только bitmap scan
+ * по GIN-индексу или Seq Scan.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.bankcards.repository.SqlCapturingStatementInspector")
+class UserQueryPlanTest extends AbstractPostgresIntegrationTest {
+    private static final String DISABLE_INDEX_SCAN = "set enable_indexscan = off";
+
+    @Autowired
+    private AdminUserService adminUserService;
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    private String cursor;
+
+    @BeforeEach
+    void setUp() {
+        cursor = new UserCursor("misha").encode();
+        SqlCapturingStatementInspector.clear();
+    }
+
+    @Test
+    void usersWithoutFilters_usesUsernameIndex() {
+        adminUserService.searchUsers(null, null, cursor, 20);
+
+        assertUsersScannedBy(usersQuery(), Set.of("users_username_key"));
+    }
+
+    @Test
+    void usersByUsernamePrefix_usesTrigramIndex() {
+        adminUserService.searchUsers("mis", null, null, 20);
+
+        assertUsersScannedBy(usersQuery(), Set.of("idx_users_username_trgm"), DISABLE_INDEX_SCAN);
+    }
+
+    @Test
+    void usersBySimilarName_usesTrigramIndex() {
+        adminUserService.searchUsers(null, "Petrov", null, 20);
+
+        assertUsersScannedBy(usersQuery(), Set.of("idx_users_first_and_last_name_trgm"), DISABLE_INDEX_SCAN);
+    }
+
+    private String usersQuery() {
+        return SqlCapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains(" from users ") && sql.contains("order by"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void assertUsersScannedBy(String sql, Set<String> expectedIndexes, String... settings) {
+        assertThat(new QueryPlanExplainer(connectionDetails).scansOf(sql, "users", settings))
+                .as("план запроса %s", sql)
+                .isNotEmpty()
+                .allSatisfy(node -> {
+                    assertThat(node.path("Node Type").asText()).isNotEqualTo("Seq Scan");
+                    assertThat(node.findValuesAsText("Index Name")).isNotEmpty().isSubsetOf(expectedIndexes);
+                });
+    }
+}
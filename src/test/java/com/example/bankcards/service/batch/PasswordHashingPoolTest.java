@@ -0,0 +1,71 @@
+package com.example.bankcards.service.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingPoolTest {
+    private PasswordHashingPool passwordHashingPool;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingPool.shutdown();
+    }
+
+    @Test
+    void encodeAllKeepsOrder() {
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(4);
+        passwordHashingPool = new PasswordHashingPool(bCryptPasswordEncoder, new SimpleMeterRegistry(), 2, 2);
+        List<String> rawPasswords = List.of("alpha", "bravo", "charlie", "delta", "echo", "foxtrot");
+
+        List<String> hashes = passwordHashingPool.encodeAll(rawPasswords);
+
+        assertThat(hashes)
+                .hasSameSizeAs(rawPasswords);
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            assertThat(bCryptPasswordEncoder.matches(rawPasswords.get(i), hashes.get(i)))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    void encodeAllHashesOnCallerThreadWhenQueueIsFull() {
+        Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+        passwordHashingPool = new PasswordHashingPool(new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThreads.add(Thread.currentThread().getName());
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        }, new SimpleMeterRegistry(), 1, 1);
+
+        passwordHashingPool.encodeAll(List.of("alpha", "bravo", "charlie", "delta"));
+
+        assertThat(hashingThreads)
+                .contains(Thread.currentThread().getName())
+                .anyMatch(name -> name.startsWith("password-hashing-"));
+    }
+
+    @Test
+    void encodeAllAfterShutdownFails() {
+        passwordHashingPool = new PasswordHashingPool(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 1);
+        passwordHashingPool.shutdown();
+
+        assertThatThrownBy(() -> passwordHashingPool.encodeAll(List.of("alpha")))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+}
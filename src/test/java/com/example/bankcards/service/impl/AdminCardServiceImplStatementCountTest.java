@@ -0,0 +1,155 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.AbstractStatementCountTest;
+import com.example.bankcards.dto.request.CardInfoRequestDto;
+import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.util.Pan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AdminCardServiceImplStatementCountTest extends AbstractStatementCountTest {
+    private static final int USERS = 5;
+    private static final int CARDS_PER_USER = 4;
+
+    @Autowired
+    private AdminCardService adminCardService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Card> cards = new ArrayList<>();
+    private final List<UUID> issuedCardIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(User.builder()
+                                                    .firstAndLastName("Owner " + i)
+                                                    .username("owner-" + UUID.randomUUID())
+                                                    .password("password")
+                                                    .role(UserRole.ROLE_USER)
+                                                    .build());
+            users.add(user);
+            for (int j = 0; j < CARDS_PER_USER; j++) {
+                cards.add(cardRepository.save(Card.builder()
+                                                      .cardNumber(luhnNumber(String.format("4000 0000 %04d %03d", i, j)))
+                                                      .user(user)
+                                                      .expirationDate(LocalDate.now().plusYears(1))
+                                                      .cardStatus(CardStatus.ACTIVE)
+                                                      .balance(BigDecimal.TEN)
+                                                      .build()));
+            }
+        }
+        clearStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuedCardIds.forEach(cardId -> jdbcTemplate.update("DELETE FROM card_transactions WHERE card_id = ?", cardId));
+        cardRepository.deleteAllById(issuedCardIds);
+        cardRepository.deleteAll(cards);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void getAllCards_loadsOwnersInTheSameStatement() {
+        AdminCardsResponseDto actual = adminCardService.getAllCards(null, null, null, null, null, null, null,
+                                                                    USERS * CARDS_PER_USER);
+
+        assertThat(actual.getCards())
+                .hasSize(USERS * CARDS_PER_USER)
+                .allSatisfy(card -> assertThat(card.getFirstAndLastName()).isNotBlank());
+        assertThat(statistics.getPrepareStatementCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getCardInformationById_loadsOwnerInTheSameStatement() {
+        AdminCardInfoResponseDto actual = adminCardService.getCardInformationById(cards.get(0).getCardId().toString());
+
+        assertThat(actual.getFirstAndLastName())
+                .isEqualTo("Owner 0");
+        assertThat(statistics.getPrepareStatementCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void createCards_resolvesOwnersOnceAndBatchesInserts() {
+        List<CardInfoRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            for (int j = 0; j < CARDS_PER_USER; j++) {
+                requests.add(cardRequest(users.get(i).getUserId().toString(), luhnNumber(String.format("4000 0001 %04d %03d", i, j))));
+            }
+        }
+        requests.add(cardRequest(users.get(0).getUserId().toString(), luhnNumber("4000 0000 0000 000")));
+        requests.add(cardRequest(UUID.randomUUID().toString(), luhnNumber("4000 0002 0000 000")));
+
+        List<CardIssueResultInfo> results = new ArrayList<>();
+        adminCardService.createCards(requests, results::addAll);
+        results.stream()
+                .filter(CardIssueResultInfo::getSuccess)
+                .forEach(result -> issuedCardIds.add(result.getCardId()));
+
+        assertThat(results)
+                .hasSize(requests.size())
+                .filteredOn(result -> !result.getSuccess())
+                .extracting(CardIssueResultInfo::getIndex, CardIssueResultInfo::getError)
+                .containsExactlyInAnyOrder(
+                        tuple(USERS * CARDS_PER_USER, "Карта с таким номером уже существует"),
+                        tuple(USERS * CARDS_PER_USER + 1, "Пользователь с таким id не найден в базе данных"));
+        assertThat(issuedCardIds)
+                .hasSize(USERS * CARDS_PER_USER);
+        assertThat(statistics.getEntityInsertCount())
+                .isEqualTo(2L * USERS * CARDS_PER_USER);
+        // владельцы, занятые номера, один батч INSERT-ов карт и один - записей начального баланса
+        assertThat(statistics.getPrepareStatementCount())
+                .isEqualTo(4);
+    }
+
+    /**
+     * Дописывает к 15 цифрам контрольную цифру по алгоритму Луна: строки пакета проверяются так же, как одиночный запрос.
+     */
+    private static String luhnNumber(String prefix) {
+        for (int checkDigit = 0; ; checkDigit++) {
+            String number = prefix + checkDigit;
+            if (Pan.isLuhnValid(number)) {
+                return number;
+            }
+        }
+    }
+
+    private static CardInfoRequestDto cardRequest(String userId, String cardNumber) {
+        return CardInfoRequestDto.builder()
+                .userId(userId)
+                .cardNumber(cardNumber)
+                .expirationDate(LocalDate.now().plusYears(1))
+                .cardStatus("ACTIVE")
+                .balance(BigDecimal.ONE)
+                .build();
+    }
+}
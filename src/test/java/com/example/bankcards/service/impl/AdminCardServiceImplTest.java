@@ -1,32 +1,63 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
 import com.example.bankcards.dto.request.CardInfoRequestDto;
 import com.example.bankcards.dto.response.AdminCardInfoResponseDto;
+import com.example.bankcards.dto.response.AdminCardsResponseDto;
+import com.example.bankcards.dto.response.CardIssueResultInfo;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardAlreadyExistsException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.exception.WrongCardStatusException;
 import com.example.bankcards.mapper.CardMapperForAdmin;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.batch.CardBatchWriter;
+import com.example.bankcards.service.batch.ChunkedBatchWriter;
+import com.example.bankcards.util.BatchRowValidator;
+import com.example.bankcards.util.CardCursor;
+import com.example.bankcards.util.CardNumberHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +65,19 @@ class AdminCardServiceImplTest {
     @Mock
     private CardRepository cardRepository;
     @Mock
+    private CardTransactionRepository cardTransactionRepository;
+    @Mock
     private UserRepository userRepository;
     @Mock
     private CardMapperForAdmin mapper;
+    @Mock
+    private CardNumberHasher cardNumberHasher;
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+    @Mock
+    private CardBatchWriter cardBatchWriter;
+    @Mock
+    private BatchRowValidator batchRowValidator;
     @InjectMocks
     private AdminCardServiceImpl adminCardService;
 
@@ -104,7 +145,7 @@ class AdminCardServiceImplTest {
     class GetCardInformationById {
         @Test
         void getCardInformationByIdWhenPresent() {
-            when(cardRepository.findById(any()))
+            when(cardRepository.findWithUserByCardId(any()))
                     .thenReturn(Optional.of(card));
             when(mapper.toFullCardInfoResponseDto(card))
                     .thenReturn(adminCardInfoResponseDto);
@@ -117,7 +158,7 @@ class AdminCardServiceImplTest {
 
         @Test
         void getCardInformationByIdWhenNotPresent() {
-            when(cardRepository.findById(any()))
+            when(cardRepository.findWithUserByCardId(any()))
                     .thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> adminCardService.getCardInformationById(cardId))
@@ -128,20 +169,83 @@ class AdminCardServiceImplTest {
 
     @Nested
     class GetAllCards {
+        @Mock
+        private JpaSpecificationExecutor.SpecificationFluentQuery<Card> fluentQuery;
+
         @Test
-        void getAllCards() {
-            when(cardRepository.findAll())
-                    .thenReturn(List.of(card, card2));
+        @SuppressWarnings(value = "unchecked")
+        void getAllCardsLastPage() {
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of(card, card2), PageRequest.of(0, 20), false));
             when(mapper.toFullCardInfoResponseDto(card))
                     .thenReturn(adminCardInfoResponseDto);
             when(mapper.toFullCardInfoResponseDto(card2))
                     .thenReturn(adminCardInfoResponseDto2);
 
-            List<AdminCardInfoResponseDto> actual = adminCardService.getAllCards();
+            AdminCardsResponseDto actual = adminCardService.getAllCards(userId, null, null, "active",
+                                                                        BigDecimal.ZERO, null, null, 20);
 
-            assertThat(actual)
-                    .hasSize(2)
-                    .containsExactlyElementsOf(List.of(adminCardInfoResponseDto, adminCardInfoResponseDto2));
+            assertThat(actual.getCards())
+                    .containsExactly(adminCardInfoResponseDto, adminCardInfoResponseDto2);
+            assertThat(actual.getNextCursor())
+                    .isNull();
+            assertThat(capturePageable())
+                    .isEqualTo(PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "expirationDate", "cardId")));
+        }
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void getAllCardsReturnsCursorOfLastCardWhenHasNext() {
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of(card, card2), PageRequest.of(0, 2), true));
+            when(mapper.toFullCardInfoResponseDto(any(Card.class)))
+                    .thenReturn(adminCardInfoResponseDto);
+
+            AdminCardsResponseDto actual = adminCardService.getAllCards(null, null, null, null, null, null,
+                                                                        CardCursor.of(card).encode(), 2);
+
+            assertThat(actual.getNextCursor())
+                    .isEqualTo(CardCursor.of(card2).encode());
+        }
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void getAllCardsClampsPageSize() {
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of()));
+
+            adminCardService.getAllCards(null, null, null, null, null, null, null, 100_000);
+
+            assertThat(capturePageable().getPageSize())
+                    .isEqualTo(100);
+        }
+
+        @Test
+        void getAllCardsWithWrongStatus() {
+            assertThatThrownBy(() -> adminCardService.getAllCards(null, null, null, "bla", null, null, null, 20))
+                    .isInstanceOf(WrongCardStatusException.class);
+        }
+
+        @Test
+        void getAllCardsWithInvalidCursor() {
+            assertThatThrownBy(() -> adminCardService.getAllCards(null, null, null, null, null, null, "bla", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private Pageable capturePageable() {
+            ArgumentCaptor<Function<JpaSpecificationExecutor.SpecificationFluentQuery<Card>, Slice<Card>>> queryCaptor =
+                    ArgumentCaptor.forClass(Function.class);
+            verify(cardRepository).findBy(any(Specification.class), queryCaptor.capture());
+            when(fluentQuery.project("user", "cardNumber"))
+                    .thenReturn(fluentQuery);
+
+            queryCaptor.getValue().apply(fluentQuery);
+
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(fluentQuery).project("user", "cardNumber");
+            verify(fluentQuery).slice(pageableCaptor.capture());
+            return pageableCaptor.getValue();
         }
     }
 
@@ -153,7 +257,7 @@ class AdminCardServiceImplTest {
                     .thenReturn(Optional.of(user));
             when(mapper.toCard(cardInfoRequestDto))
                     .thenReturn(card);
-            when(cardRepository.save(card))
+            when(cardRepository.saveAndFlush(card))
                     .thenReturn(card);
             when(mapper.toFullCardInfoResponseDto(card))
                     .thenReturn(adminCardInfoResponseDto);
@@ -162,6 +266,11 @@ class AdminCardServiceImplTest {
 
             assertThat(actual)
                     .isEqualTo(adminCardInfoResponseDto);
+            ArgumentCaptor<CardTransaction> openingCaptor = ArgumentCaptor.forClass(CardTransaction.class);
+            verify(cardTransactionRepository).save(openingCaptor.capture());
+            assertThat(openingCaptor.getValue())
+                    .extracting(CardTransaction::getCardId, CardTransaction::getOperation, CardTransaction::getAmount)
+                    .containsExactly(card.getCardId(), CardTransactionType.OPENING_BALANCE, card.getBalance());
         }
 
         @Test
@@ -173,6 +282,134 @@ class AdminCardServiceImplTest {
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("Пользователь с таким id не найден в базе данных");
         }
+
+        @Test
+        void createCardWhenCardNumberAlreadyExists() {
+            byte[] hash = {1, 2, 3};
+            when(userRepository.findById(any()))
+                    .thenReturn(Optional.of(user));
+            when(cardNumberHasher.hash(cardInfoRequestDto.getCardNumber()))
+                    .thenReturn(hash);
+            when(cardRepository.existsByCardNumberHash(hash))
+                    .thenReturn(true);
+
+            assertThatThrownBy(() -> adminCardService.createCard(cardInfoRequestDto))
+                    .isInstanceOf(CardAlreadyExistsException.class)
+                    .hasMessageContaining("Карта с таким номером уже существует");
+            verify(cardRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        void createCardWhenConcurrentInsertViolatesUniqueIndex() {
+            when(userRepository.findById(any()))
+                    .thenReturn(Optional.of(user));
+            when(mapper.toCard(cardInfoRequestDto))
+                    .thenReturn(card);
+            when(cardRepository.saveAndFlush(card))
+                    .thenThrow(new DataIntegrityViolationException("uq_cards_card_number_hash"));
+
+            assertThatThrownBy(() -> adminCardService.createCard(cardInfoRequestDto))
+                    .isInstanceOf(CardAlreadyExistsException.class);
+        }
+    }
+
+    @Nested
+    class CreateCards {
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void createCardsRejectsRowsBeforeWritingAndStreamsResults() {
+            CardInfoRequestDto unknownOwner = CardInfoRequestDto.builder()
+                    .cardNumber("9999 4560 7890 9999")
+                    .userId(UUID.randomUUID().toString())
+                    .build();
+            CardInfoRequestDto existing = CardInfoRequestDto.builder()
+                    .cardNumber("4000 0000 0000 0002")
+                    .userId(userId)
+                    .build();
+            when(cardNumberHasher.hash(anyString()))
+                    .thenAnswer(invocation -> invocation.getArgument(0, String.class).getBytes());
+            when(userRepository.findAllById(any()))
+                    .thenReturn(List.of(user));
+            when(cardRepository.findExistingCardNumberHashes(any()))
+                    .thenReturn(List.of(existing.getCardNumber().getBytes()));
+            when(mapper.toCard(cardInfoRequestDto))
+                    .thenReturn(card);
+            doAnswer(invocation -> {
+                invocation.<Consumer<List<ChunkedBatchWriter.WriteResult>>>getArgument(1)
+                        .accept(List.of(new ChunkedBatchWriter.WriteResult(0, card.getCardId(), null)));
+                return null;
+            }).when(cardBatchWriter).write(eq(List.of(card)), any());
+
+            List<List<CardIssueResultInfo>> chunks = new ArrayList<>();
+            adminCardService.createCards(List.of(cardInfoRequestDto, cardInfoRequestDto, unknownOwner, existing),
+                                         chunks::add);
+
+            assertThat(chunks)
+                    .hasSize(2);
+            assertThat(chunks.get(0))
+                    .extracting(CardIssueResultInfo::getIndex, CardIssueResultInfo::getSuccess, CardIssueResultInfo::getError)
+                    .containsExactly(tuple(1, false, "Карта с таким номером уже существует"),
+                                     tuple(2, false, "Пользователь с таким id не найден в базе данных"),
+                                     tuple(3, false, "Карта с таким номером уже существует"));
+            assertThat(chunks.get(1))
+                    .extracting(CardIssueResultInfo::getIndex, CardIssueResultInfo::getCardId, CardIssueResultInfo::getSuccess)
+                    .containsExactly(tuple(0, card.getCardId(), true));
+            verify(userRepository, never()).findById(any());
+        }
+
+        @Test
+        void createCardsRejectsInvalidRowsWithoutLookingThemUp() {
+            CardInfoRequestDto invalid = CardInfoRequestDto.builder()
+                    .cardNumber("1111 2222 3333 4445")
+                    .userId(userId)
+                    .build();
+            when(batchRowValidator.validate(invalid))
+                    .thenReturn("cardNumber: Номер карты должен состоять из 16 цифр в блоках по 4 и проходить проверку по алгоритму Луна");
+            when(cardNumberHasher.hash(anyString()))
+                    .thenAnswer(invocation -> invocation.getArgument(0, String.class).getBytes());
+            when(userRepository.findAllById(any()))
+                    .thenReturn(List.of(user));
+            when(mapper.toCard(cardInfoRequestDto))
+                    .thenReturn(card);
+
+            List<List<CardIssueResultInfo>> chunks = new ArrayList<>();
+            adminCardService.createCards(List.of(invalid, cardInfoRequestDto), chunks::add);
+
+            assertThat(chunks.get(0))
+                    .extracting(CardIssueResultInfo::getIndex, CardIssueResultInfo::getSuccess, CardIssueResultInfo::getError)
+                    .containsExactly(tuple(0, false,
+                                           "cardNumber: Номер карты должен состоять из 16 цифр в блоках по 4 и проходить проверку по алгоритму Луна"));
+            verify(cardNumberHasher, never()).hash(invalid.getCardNumber());
+            verify(cardBatchWriter).write(eq(List.of(card)), any());
+        }
+    }
+
+    @Nested
+    class GetCardInformationByNumber {
+        @Test
+        void getCardInformationByNumberWhenPresent() {
+            byte[] hash = {1, 2, 3};
+            when(cardNumberHasher.hash("1111 2222 3333 4444"))
+                    .thenReturn(hash);
+            when(cardRepository.findWithUserByCardNumberHash(hash))
+                    .thenReturn(Optional.of(card));
+            when(mapper.toFullCardInfoResponseDto(card))
+                    .thenReturn(adminCardInfoResponseDto);
+
+            AdminCardInfoResponseDto actual = adminCardService.getCardInformationByNumber("1111 2222 3333 4444");
+
+            assertThat(actual)
+                    .isEqualTo(adminCardInfoResponseDto);
+        }
+
+        @Test
+        void getCardInformationByNumberWhenNotPresent() {
+            when(cardRepository.findWithUserByCardNumberHash(any()))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> adminCardService.getCardInformationByNumber("1111 2222 3333 4444"))
+                    .isInstanceOf(CardNotFoundException.class);
+        }
     }
 
     @Nested
@@ -188,6 +425,7 @@ class AdminCardServiceImplTest {
 
             assertThat(actual)
                     .isEqualTo(expected);
+            verify(cardBalanceCache).evict(card.getCardId());
         }
 
         @Test
@@ -210,6 +448,7 @@ class AdminCardServiceImplTest {
             String actual = adminCardService.delete(cardId);
 
             assertThat(actual).isEqualTo(expected);
+            verify(cardBalanceCache).evict(UUID.fromString(cardId));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.AbstractStatementCountTest;
+import com.example.bankcards.dto.request.UserInfoRequestDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.AdminUserService;
+import com.example.bankcards.service.batch.ChunkedBatchWriter;
+import com.example.bankcards.service.batch.UserBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AdminUserServiceImplStatementCountTest extends AbstractStatementCountTest {
+    private static final int USERS = 20;
+
+    @Autowired
+    private AdminUserService adminUserService;
+    @Autowired
+    private UserBatchWriter userBatchWriter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+    private final List<UUID> importedUserIds = new ArrayList<>();
+    private String prefix;
+    private User existing;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "import-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        existing = userRepository.save(User.builder()
+                                               .firstAndLastName("Existing")
+                                               .username(prefix + "existing")
+                                               .password("password")
+                                               .role(UserRole.ROLE_USER)
+                                               .build());
+        clearStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllById(importedUserIds);
+        userRepository.deleteById(existing.getUserId());
+    }
+
+    @Test
+    void createUsers_failsOnlyDuplicateRowsAndBatchesInserts() {
+        List<UserInfoRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            requests.add(userRequest(prefix + i));
+        }
+        requests.add(userRequest(existing.getUsername()));
+        requests.add(userRequest(prefix + 0));
+
+        List<UserImportResultInfo> results = new ArrayList<>();
+        adminUserService.createUsers(requests, results::addAll);
+        long preparedStatements = statistics.getPrepareStatementCount();
+        results.stream()
+                .filter(UserImportResultInfo::getSuccess)
+                .forEach(result -> importedUserIds.add(result.getUserId()));
+
+        assertThat(results)
+                .hasSize(requests.size())
+                .filteredOn(result -> !result.getSuccess())
+                .extracting(UserImportResultInfo::getIndex, UserImportResultInfo::getError)
+                .containsExactlyInAnyOrder(
+                        tuple(USERS, "Пользователь с таким username уже существует"),
+                        tuple(USERS + 1, "Пользователь с таким username уже существует"));
+        assertThat(importedUserIds)
+                .hasSize(USERS);
+        assertThat(bCryptPasswordEncoder.matches("password-" + prefix + 3,
+                                                 userRepository.findByUsername(prefix + 3).orElseThrow().getPassword()))
+                .isTrue();
+        // занятые username и один батч INSERT-ов
+        assertThat(preparedStatements)
+                .isEqualTo(2);
+    }
+
+    @Test
+    void write_whenUsernameTakenConcurrently_failsOnlyThatRow() {
+        List<User> users = List.of(newUser(prefix + "fresh"), newUser(existing.getUsername()), newUser(prefix + "other"));
+
+        List<ChunkedBatchWriter.WriteResult> results = new ArrayList<>();
+        userBatchWriter.write(users, results::addAll);
+        results.stream()
+                .map(ChunkedBatchWriter.WriteResult::id)
+                .filter(Objects::nonNull)
+                .forEach(importedUserIds::add);
+
+        assertThat(results)
+                .extracting(ChunkedBatchWriter.WriteResult::position, ChunkedBatchWriter.WriteResult::error)
+                .containsExactly(tuple(0, null),
+                                 tuple(1, "Пользователь с таким username уже существует"),
+                                 tuple(2, null));
+        assertThat(userRepository.findByUsername(prefix + "other"))
+                .isPresent();
+    }
+
+    private static UserInfoRequestDto userRequest(String username) {
+        return UserInfoRequestDto.builder()
+                .firstAndLastName("Imported " + username)
+                .username(username)
+                .password("password-" + username)
+                .role("ROLE_USER")
+                .build();
+    }
+
+    private static User newUser(String username) {
+        return User.builder()
+                .firstAndLastName("Imported " + username)
+                .username(username)
+                .password("password")
+                .role(UserRole.ROLE_USER)
+                .build();
+    }
+}
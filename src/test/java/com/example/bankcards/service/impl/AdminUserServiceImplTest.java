@@ -1,27 +1,47 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
 import com.example.bankcards.dto.request.UserInfoRequestDto;
 import com.example.bankcards.dto.response.AdminUserInfoResponseDto;
+import com.example.bankcards.dto.response.AdminUsersResponseDto;
+import com.example.bankcards.dto.response.UserImportResultInfo;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.mapper.UserMapperForAdmin;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.batch.ChunkedBatchWriter;
+import com.example.bankcards.service.batch.UserBatchWriter;
+import com.example.bankcards.util.UserCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +53,12 @@ class AdminUserServiceImplTest {
     private UserMapperForAdmin mapper;
     @Mock
     private BCryptPasswordEncoder bCryptPasswordEncoder;
+    @Mock
+    private UserDetailsServiceCustomImpl userDetailsService;
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+    @Mock
+    private UserBatchWriter userBatchWriter;
     @InjectMocks
     private AdminUserServiceImpl adminUserService;
 
@@ -112,6 +138,76 @@ class AdminUserServiceImplTest {
         }
     }
 
+    @Nested
+    class SearchUsers {
+        @Mock
+        private JpaSpecificationExecutor.SpecificationFluentQuery<User> fluentQuery;
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void searchUsersLastPage() {
+            when(userRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of(user, user2), PageRequest.of(0, 20), false));
+            when(mapper.entityToDto(user))
+                    .thenReturn(adminUserInfoResponseDto);
+            when(mapper.entityToDto(user2))
+                    .thenReturn(adminUserInfoResponseDto2);
+
+            AdminUsersResponseDto actual = adminUserService.searchUsers("jo", "Doe", null, 20);
+
+            assertThat(actual.getUsers())
+                    .containsExactly(adminUserInfoResponseDto, adminUserInfoResponseDto2);
+            assertThat(actual.getNextCursor())
+                    .isNull();
+            assertThat(capturePageable())
+                    .isEqualTo(PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "username")));
+        }
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void searchUsersReturnsCursorOfLastUserWhenHasNext() {
+            user2.setUsername("misha");
+            when(userRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of(user, user2), PageRequest.of(0, 2), true));
+
+            AdminUsersResponseDto actual = adminUserService.searchUsers(null, null, new UserCursor("john").encode(), 2);
+
+            assertThat(actual.getNextCursor())
+                    .isEqualTo(new UserCursor("misha").encode());
+        }
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void searchUsersClampsPageSize() {
+            when(userRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(new SliceImpl<>(List.of()));
+
+            adminUserService.searchUsers(null, null, null, 100_000);
+
+            assertThat(capturePageable().getPageSize())
+                    .isEqualTo(100);
+        }
+
+        @Test
+        void searchUsersWithInvalidCursor() {
+            assertThatThrownBy(() -> adminUserService.searchUsers(null, null, "!!!", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private Pageable capturePageable() {
+            ArgumentCaptor<Function<JpaSpecificationExecutor.SpecificationFluentQuery<User>, Slice<User>>> queryCaptor =
+                    ArgumentCaptor.forClass(Function.class);
+            verify(userRepository).findBy(any(Specification.class), queryCaptor.capture());
+
+            queryCaptor.getValue().apply(fluentQuery);
+
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(fluentQuery).slice(pageableCaptor.capture());
+            return pageableCaptor.getValue();
+        }
+    }
+
     @Nested
     class CreateUser {
         @Test
@@ -132,6 +228,44 @@ class AdminUserServiceImplTest {
         }
     }
 
+    @Nested
+    class CreateUsers {
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void createUsersRejectsDuplicateUsernamesBeforeWritingAndStreamsResults() {
+            UserInfoRequestDto newcomer = UserInfoRequestDto.builder()
+                    .firstAndLastName("John Doe")
+                    .username("john")
+                    .build();
+            UserInfoRequestDto existing = UserInfoRequestDto.builder()
+                    .firstAndLastName("Mihail Nekrasov")
+                    .username("misha")
+                    .build();
+            when(userRepository.findExistingUsernames(List.of("john", "john", "misha")))
+                    .thenReturn(List.of("misha"));
+            when(mapper.dtoToEntity(newcomer))
+                    .thenReturn(user);
+            doAnswer(invocation -> {
+                invocation.<Consumer<List<ChunkedBatchWriter.WriteResult>>>getArgument(1)
+                        .accept(List.of(new ChunkedBatchWriter.WriteResult(0, user.getUserId(), null)));
+                return null;
+            }).when(userBatchWriter).write(eq(List.of(user)), any());
+
+            List<List<UserImportResultInfo>> chunks = new ArrayList<>();
+            adminUserService.createUsers(List.of(newcomer, newcomer, existing), chunks::add);
+
+            assertThat(chunks)
+                    .hasSize(2);
+            assertThat(chunks.get(0))
+                    .extracting(UserImportResultInfo::getIndex, UserImportResultInfo::getSuccess, UserImportResultInfo::getError)
+                    .containsExactly(tuple(1, false, "Пользователь с таким username уже существует"),
+                                     tuple(2, false, "Пользователь с таким username уже существует"));
+            assertThat(chunks.get(1))
+                    .extracting(UserImportResultInfo::getIndex, UserImportResultInfo::getUserId, UserImportResultInfo::getSuccess)
+                    .containsExactly(tuple(0, user.getUserId(), true));
+        }
+    }
+
     @Nested
     class UpdateUser {
         @Test
@@ -157,6 +291,7 @@ class AdminUserServiceImplTest {
                     .isEqualTo(expected);
             assertThat(actual.getFirstAndLastName())
                     .isEqualTo(expected.getFirstAndLastName());
+            verify(userDetailsService).evictUser(UUID.fromString(userId));
         }
 
         @Test
@@ -181,6 +316,8 @@ class AdminUserServiceImplTest {
             assertThat(actual).isEqualTo(expected);
 
             verify(userRepository).deleteById(UUID.fromString(userId));
+            verify(userDetailsService).evictUser(UUID.fromString(userId));
+            verify(cardBalanceCache).evictOwner(UUID.fromString(userId));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.response.CardTransactionsResponseDto;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.mapper.CardTransactionMapper;
+import com.example.bankcards.repository.CardBalanceView;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.util.CardTransactionCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardTransactionServiceImplTest {
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+    @Mock
+    private CardTransactionMapper cardTransactionMapper;
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+    @InjectMocks
+    private CardTransactionServiceImpl cardTransactionService;
+
+    private UUID cardId;
+    private UUID userId;
+    private CardTransaction newer;
+    private CardTransaction older;
+
+    @BeforeEach
+    void setUp() {
+        cardId = UUID.fromString("bfe0dc37-f16d-4d1f-81c9-ef878a721cab");
+        userId = UUID.fromString("54e66dce-e870-4d81-8a1a-fff6d2e07d6b");
+        OffsetDateTime now = OffsetDateTime.of(2025, 8, 20, 12, 0, 0, 0, ZoneOffset.UTC);
+        newer = CardTransaction.builder()
+                .transactionId(UUID.fromString("3c24223c-ac3d-4c91-bf7b-dbe625580261"))
+                .cardId(cardId)
+                .operation(CardTransactionType.TRANSFER_OUT)
+                .amount(BigDecimal.valueOf(-10))
+                .balanceAfter(BigDecimal.valueOf(90))
+                .createdAt(now)
+                .build();
+        older = CardTransaction.builder()
+                .transactionId(UUID.fromString("9a1d2b3c-4e5f-4a6b-8c7d-0e1f2a3b4c5d"))
+                .cardId(cardId)
+                .operation(CardTransactionType.OPENING_BALANCE)
+                .amount(BigDecimal.valueOf(100))
+                .balanceAfter(BigDecimal.valueOf(100))
+                .createdAt(now.minusDays(1))
+                .build();
+    }
+
+    @Nested
+    class GetUserCardHistory {
+        @Test
+        void getUserCardHistoryReturnsCursorOfLastTransactionWhenHasNext() {
+            when(cardBalanceCache.get(cardId))
+                    .thenReturn(new CardBalanceView(userId, BigDecimal.valueOf(90), CardStatus.ACTIVE));
+            when(cardTransactionRepository.findByCardId(eq(cardId), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(newer, older), PageRequest.of(0, 2), true));
+            when(cardTransactionMapper.toResponseDto(any(), any()))
+                    .thenReturn(new CardTransactionsResponseDto());
+
+            cardTransactionService.getUserCardHistory(userId.toString(), cardId.toString(), null, 2);
+
+            verify(cardTransactionMapper).toResponseDto(CardTransactionCursor.of(older).encode(),
+                                                        List.of(newer, older));
+        }
+
+        @Test
+        void getUserCardHistoryWhenCardNotBelongsToUser() {
+            when(cardBalanceCache.get(cardId))
+                    .thenReturn(new CardBalanceView(UUID.randomUUID(), BigDecimal.TEN, CardStatus.ACTIVE));
+
+            assertThatThrownBy(() -> cardTransactionService.getUserCardHistory(userId.toString(),
+                                                                               cardId.toString(), null, 20))
+                    .isInstanceOf(CardNotBelongsToUserException.class);
+            verifyNoInteractions(cardTransactionRepository);
+        }
+    }
+
+    @Nested
+    class GetCardHistory {
+        @Test
+        void getCardHistoryContinuesAfterCursorAndClampsPageSize() {
+            when(cardTransactionRepository.findByCardIdBefore(eq(cardId), eq(newer.getCreatedAt()),
+                                                              eq(newer.getTransactionId()), any(Pageable.class)))
+                    .thenReturn(new SliceImpl<>(List.of(older)));
+
+            cardTransactionService.getCardHistory(cardId.toString(), CardTransactionCursor.of(newer).encode(), 100_000);
+
+            ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+            verify(cardTransactionRepository).findByCardIdBefore(any(), any(), any(), pageable.capture());
+            assertThat(pageable.getValue().getPageSize())
+                    .isEqualTo(100);
+            verify(cardTransactionMapper).toResponseDto(isNull(), eq(List.of(older)));
+        }
+
+        @Test
+        void getCardHistoryWithInvalidCursor() {
+            assertThatThrownBy(() -> cardTransactionService.getCardHistory(cardId.toString(), "bla", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.dto.response.UserCardsResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.exception.CardNotBelongsToUserException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.WrongCardStatusException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.ReactiveUserCardService;
+import com.example.bankcards.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * R2DBC-чтение должно отдавать те же страницы, курсоры и ошибки, что и JPA-реализация.
+ */
+@TestPropertySource(properties = "cards.read-stack=r2dbc")
+class ReactiveUserCardServiceImplTest extends AbstractPostgresIntegrationTest {
+    @Autowired
+    private ReactiveUserCardService reactiveUserCardService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+
+    private User user;
+    private final List<Card> cards = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                                           .firstAndLastName("Reactive Reader")
+                                           .username("reactive-" + UUID.randomUUID())
+                                           .password("password")
+                                           .role(UserRole.ROLE_USER)
+                                           .build());
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 7; i++) {
+            cards.add(cardRepository.save(Card.builder()
+                                                  .cardNumber(randomCardNumber())
+                                                  .user(user)
+                                                  .expirationDate(today.plusMonths(i % 3))
+                                                  .cardStatus(i % 2 == 0 ? CardStatus.ACTIVE : CardStatus.BLOCKED)
+                                                  .balance(BigDecimal.valueOf(100 + i))
+                                                  .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllById(cards.stream().map(Card::getCardId).toList());
+        userRepository.deleteById(user.getUserId());
+    }
+
+    @Test
+    void getAllCards_matchesJpaPagesAndCursors() {
+        String userId = user.getUserId().toString();
+        LocalDate today = LocalDate.now();
+
+        assertThat(reactiveUserCardService.getAllCards(userId, null, null, null, 2, 3, null, true).block())
+                .isEqualTo(userService.getAllCards(userId, null, null, null, 2, 3, null, true));
+        assertThat(reactiveUserCardService.getAllCards(userId, today, today.plusMonths(1), "active", 1, 5, null, true).block())
+                .isEqualTo(userService.getAllCards(userId, today, today.plusMonths(1), "active", 1, 5, null, true));
+
+        String cursor = null;
+        do {
+            UserCardsResponseDto reactive = reactiveUserCardService.getAllCards(userId, null, null, null, 1, 2, cursor, false).block();
+            UserCardsResponseDto jpa = userService.getAllCards(userId, null, null, null, 1, 2, cursor, false);
+            assertThat(reactive).isEqualTo(jpa);
+            cursor = reactive.getNextCursor();
+        } while (cursor != null);
+    }
+
+    @Test
+    void getAllCards_whenStatusUnknown() {
+        assertThatThrownBy(() -> reactiveUserCardService.getAllCards(user.getUserId().toString(), null, null, "LOST",
+                                                                     1, 5, null, false).block())
+                .isInstanceOf(WrongCardStatusException.class);
+    }
+
+    @Test
+    void getBalance() {
+        String userId = user.getUserId().toString();
+        String cardId = cards.get(1).getCardId().toString();
+
+        assertThat(reactiveUserCardService.getBalance(userId, cardId).block())
+                .isEqualTo(userService.getBalance(userId, cardId));
+        assertThatThrownBy(() -> reactiveUserCardService.getBalance(UUID.randomUUID().toString(), cardId).block())
+                .isInstanceOf(CardNotBelongsToUserException.class);
+        assertThatThrownBy(() -> reactiveUserCardService.getBalance(userId, UUID.randomUUID().toString()).block())
+                .isInstanceOf(CardNotFoundException.class);
+    }
+
+    private static String randomCardNumber() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "%04d %04d %04d %04d".formatted(random.nextInt(10_000), random.nextInt(10_000),
+                                               random.nextInt(10_000), random.nextInt(10_000));
+    }
+}
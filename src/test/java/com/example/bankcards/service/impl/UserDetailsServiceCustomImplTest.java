@@ -0,0 +1,168 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceCustomImplTest {
+    private static final String OLD_HASH = "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsServiceCustomImpl userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new UserDetailsServiceCustomImpl(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+        user = User.builder()
+                .userId(UUID.fromString("c8eb85e0-ed3e-475f-8fdf-6c385e0429fa"))
+                .username("misha")
+                .password(OLD_HASH)
+                .role(UserRole.ROLE_USER)
+                .build();
+    }
+
+    @Nested
+    class LoadUserByUsername {
+        @Test
+        void loadUserByUsernameReturnsPrincipalWithUserId() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+
+            UserDetails actual = userDetailsService.loadUserByUsername("misha");
+
+            assertThat(actual)
+                    .isInstanceOf(UserPrincipal.class);
+            assertThat(((UserPrincipal) actual).getUserId())
+                    .isEqualTo(user.getUserId());
+            assertThat(actual.getPassword())
+                    .isEqualTo(OLD_HASH);
+            assertThat(actual.getAuthorities())
+                    .extracting("authority")
+                    .containsExactly("ROLE_USER");
+        }
+
+        @Test
+        void loadUserByUsernameReadsRepositoryOnce() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+
+            UserPrincipal first = (UserPrincipal) userDetailsService.loadUserByUsername("misha");
+            first.eraseCredentials();
+            UserDetails second = userDetailsService.loadUserByUsername("misha");
+
+            assertThat(second.getPassword())
+                    .isEqualTo(OLD_HASH);
+            verify(userRepository).findByUsername("misha");
+        }
+
+        @Test
+        void loadUserByUsernameWhenNotFound() {
+            when(userRepository.findByUsername("ghost"))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                    .isInstanceOf(UsernameNotFoundException.class)
+                    .hasMessageContaining("Пользователь с username = ghost не найден");
+        }
+    }
+
+    @Nested
+    class EvictUser {
+        @Test
+        void evictUserForcesNextLoadFromRepository() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+
+            userDetailsService.loadUserByUsername("misha");
+            userDetailsService.evictUser(user.getUserId());
+            userDetailsService.loadUserByUsername("misha");
+
+            verify(userRepository, times(2)).findByUsername("misha");
+        }
+    }
+
+    @Nested
+    class UpdatePassword {
+        @Test
+        void updatePasswordStoresNewHashAndEvictsUser() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+            when(userRepository.updatePassword("misha", OLD_HASH, "$2a$10$newhash"))
+                    .thenReturn(1);
+
+            UserDetails loaded = userDetailsService.loadUserByUsername("misha");
+            UserDetails actual = userDetailsService.updatePassword(loaded, "$2a$10$newhash");
+            userDetailsService.loadUserByUsername("misha");
+
+            assertThat(actual)
+                    .isInstanceOf(UserPrincipal.class);
+            assertThat(((UserPrincipal) actual).getUserId())
+                    .isEqualTo(user.getUserId());
+            assertThat(actual.getPassword())
+                    .isEqualTo("$2a$10$newhash");
+            verify(userRepository).updatePassword("misha", OLD_HASH, "$2a$10$newhash");
+            verify(userRepository, times(2)).findByUsername("misha");
+            assertThat(meterRegistry.get("bankcards.password.rehashed").tag("from_cost", "12").counter().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void updatePasswordWhenSaveFailsKeepsOldHash() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+            when(userRepository.updatePassword("misha", OLD_HASH, "$2a$10$newhash"))
+                    .thenThrow(new QueryTimeoutException("lock timeout"));
+
+            UserDetails loaded = userDetailsService.loadUserByUsername("misha");
+            UserDetails actual = userDetailsService.updatePassword(loaded, "$2a$10$newhash");
+            userDetailsService.loadUserByUsername("misha");
+
+            assertThat(actual.getPassword())
+                    .isEqualTo(OLD_HASH);
+            verify(userRepository).findByUsername("misha");
+        }
+
+        @Test
+        void updatePasswordWhenPasswordChangedAfterLoginKeepsOldHash() {
+            when(userRepository.findByUsername("misha"))
+                    .thenReturn(Optional.of(user));
+            when(userRepository.updatePassword("misha", OLD_HASH, "$2a$10$newhash"))
+                    .thenReturn(0);
+
+            UserDetails loaded = userDetailsService.loadUserByUsername("misha");
+            UserDetails actual = userDetailsService.updatePassword(loaded, "$2a$10$newhash");
+
+            assertThat(actual.getPassword())
+                    .isEqualTo(OLD_HASH);
+            assertThat(meterRegistry.find("bankcards.password.rehashed").counter())
+                    .isNull();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.AbstractPostgresIntegrationTest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserRole;
+import com.example.bankcards.exception.IdempotencyKeyReusedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class UserServiceImplConcurrencyTest extends AbstractPostgresIntegrationTest {
+    private static final int THREADS = 32;
+    private static final int TRANSFERS_PER_DIRECTION = 250;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000);
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Card cardA;
+    private Card cardB;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                                           .firstAndLastName("Concurrent Transfer")
+                                           .username("concurrent-" + UUID.randomUUID())
+                                           .password("password")
+                                           .role(UserRole.ROLE_USER)
+                                           .build());
+        cardA = cardRepository.save(newCard("1111 2222 3333 4444"));
+        cardB = cardRepository.save(newCard("5555 6666 7777 8888"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM card_transactions WHERE card_id IN (?, ?)", cardA.getCardId(), cardB.getCardId());
+        cardRepository.deleteAllById(List.of(cardA.getCardId(), cardB.getCardId()));
+        userRepository.deleteById(user.getUserId());
+    }
+
+    @Test
+    void transfer_inBothDirectionsConcurrently_keepsBalancesConsistent() throws Exception {
+        String userId = user.getUserId().toString();
+        String idA = cardA.getCardId().toString();
+        String idB = cardB.getCardId().toString();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < TRANSFERS_PER_DIRECTION; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.transfer(userId, idA, idB, BigDecimal.ONE, null);
+                }));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.transfer(userId, idB, idA, BigDecimal.valueOf(2), null);
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(1, TimeUnit.MINUTES)).isEqualTo("Сумма успешно переведена между картами");
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            log.info("{} переводов в {} потоков за {} мс, {} переводов/с",
+                     results.size(), THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                     results.size() * 1_000_000_000L / Math.max(elapsedNanos, 1));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal delta = BigDecimal.valueOf(TRANSFERS_PER_DIRECTION);
+        assertThat(cardRepository.findById(cardA.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.add(delta));
+        assertThat(cardRepository.findById(cardB.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.subtract(delta));
+        assertThat(ledgerSum(cardA))
+                .isEqualByComparingTo(delta);
+        assertThat(ledgerSum(cardB))
+                .isEqualByComparingTo(delta.negate());
+    }
+
+    @Test
+    void getBalance_duringConcurrentTransfers_returnsCommittedBalanceAfterwards() throws Exception {
+        String userId = user.getUserId().toString();
+        String idA = cardA.getCardId().toString();
+        String idB = cardB.getCardId().toString();
+        double hitsBefore = balanceCacheHits();
+
+        AtomicBoolean transferring = new AtomicBoolean(true);
+        List<Future<?>> readers = new ArrayList<>();
+        List<Future<String>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < THREADS / 4; i++) {
+                readers.add(executor.submit(() -> {
+                    while (transferring.get()) {
+                        userService.getBalance(userId, idA);
+                        userService.getBalance(userId, idB);
+                    }
+                }));
+            }
+            for (int i = 0; i < TRANSFERS_PER_DIRECTION; i++) {
+                results.add(executor.submit(() -> userService.transfer(userId, idA, idB, BigDecimal.ONE, null)));
+                results.add(executor.submit(() -> userService.transfer(userId, idB, idA, BigDecimal.valueOf(2), null)));
+            }
+            for (Future<String> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+            transferring.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(new BigDecimal(userService.getBalance(userId, idA)))
+                .isEqualByComparingTo(cardRepository.findById(cardA.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.add(BigDecimal.valueOf(TRANSFERS_PER_DIRECTION)));
+        assertThat(new BigDecimal(userService.getBalance(userId, idB)))
+                .isEqualByComparingTo(cardRepository.findById(cardB.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.subtract(BigDecimal.valueOf(TRANSFERS_PER_DIRECTION)));
+        assertThat(balanceCacheHits())
+                .isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    void transfer_withSameIdempotencyKeyConcurrently_movesMoneyOnce() throws Exception {
+        String userId = user.getUserId().toString();
+        String idA = cardA.getCardId().toString();
+        String idB = cardB.getCardId().toString();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.transfer(userId, idA, idB, BigDecimal.TEN, idempotencyKey);
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(1, TimeUnit.MINUTES)).isEqualTo("Сумма успешно переведена между картами");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cardRepository.findById(cardA.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.subtract(BigDecimal.TEN));
+        assertThat(cardRepository.findById(cardB.getCardId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.add(BigDecimal.TEN));
+        assertThatThrownBy(() -> userService.transfer(userId, idA, idB, BigDecimal.ONE, idempotencyKey))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void transfer_whenCardLockedElsewhere_failsByLockTimeoutOnlyInsideTransfer() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                cardRepository.findAllByIdForUpdate(List.of(cardA.getCardId()));
+                locked.countDown();
+                try {
+                    release.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(1, TimeUnit.MINUTES)).isTrue();
+
+            assertThatThrownBy(() -> userService.transfer(user.getUserId().toString(), cardA.getCardId().toString(),
+                                                          cardB.getCardId().toString(), BigDecimal.ONE, null))
+                    .isInstanceOf(ConcurrencyFailureException.class);
+            assertThat(jdbcTemplate.queryForObject("SHOW lock_timeout", String.class))
+                    .isEqualTo("0");
+
+            release.countDown();
+            holder.get(1, TimeUnit.MINUTES);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private double balanceCacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "cardBalance")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private Card newCard(String cardNumber) {
+        return Card.builder()
+                .cardNumber(cardNumber)
+                .user(user)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .cardStatus(CardStatus.ACTIVE)
+                .balance(INITIAL_BALANCE)
+                .build();
+    }
+
+    private BigDecimal ledgerSum(Card card) {
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(amount), 0) FROM card_transactions WHERE card_id = ?",
+                                           BigDecimal.class, card.getCardId());
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.cache.CardBalanceCache;
+import com.example.bankcards.dto.request.TransferInfoRequestDto;
+import com.example.bankcards.dto.response.BatchTransferResponseDto;
+import com.example.bankcards.dto.response.TransferResultInfo;
 import com.example.bankcards.dto.response.UserCardsResponseDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.CardTransactionType;
+import com.example.bankcards.exception.CardNotActiveException;
 import com.example.bankcards.exception.CardNotBelongsToUserException;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.NotEnoughMoneyException;
 import com.example.bankcards.mapper.UserCardsResponseMapper;
+import com.example.bankcards.repository.CardBalanceView;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.TransferIdempotencyStore;
+import com.example.bankcards.util.CardCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,24 +28,33 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +63,13 @@ class UserServiceImplTest {
     @Mock
     private CardRepository cardRepository;
     @Mock
+    private CardTransactionRepository cardTransactionRepository;
+    @Mock
     private UserCardsResponseMapper userCardsResponseMapper;
+    @Mock
+    private CardBalanceCache cardBalanceCache;
+    @Mock
+    private TransferIdempotencyStore transferIdempotencyStore;
     @InjectMocks
     private UserServiceImpl userServiceImpl;
 
@@ -56,7 +82,7 @@ class UserServiceImplTest {
     private int pageSize;
     private Card card;
     private List<Card> cards;
-    private Page<Card> cardsPage;
+    private Slice<Card> cardsSlice;
 
     @BeforeEach
     void setUp() {
@@ -89,51 +115,102 @@ class UserServiceImplTest {
                           .cardStatus(CardStatus.valueOf(cardStatus))
                           .balance(BigDecimal.valueOf(500.0))
                           .build());
-        cardsPage = new PageImpl<>(cards, PageRequest.of(page - 1, pageSize), 2);
+        cardsSlice = new SliceImpl<>(cards, PageRequest.of(page - 1, pageSize), false);
+        ReflectionTestUtils.setField(userServiceImpl, "lockTimeout", "3s");
     }
 
     @Nested
     class GetAllCards {
+        @Mock
+        private JpaSpecificationExecutor.SpecificationFluentQuery<Card> fluentQuery;
+
         @Test
         @SuppressWarnings(value = "unchecked")
         void getAllCards_returnsExpectedDto() {
             UserCardsResponseDto expected = UserCardsResponseDto.builder().build();
 
-            when(cardRepository.findAll(any(Specification.class), any(Pageable.class)))
-                    .thenReturn(cardsPage);
-            when(userCardsResponseMapper.toResponseDto(cardsPage.getTotalPages(), cardsPage.getContent()))
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(cardsSlice);
+            when(cardRepository.count(any(Specification.class)))
+                    .thenReturn(2L);
+            when(userCardsResponseMapper.toResponseDto(1, null, cardsSlice.getContent()))
                     .thenReturn(expected);
 
             UserCardsResponseDto actual = userServiceImpl.getAllCards(userId, expirationDate,
                                                                       expirationDate.plusYears(2), cardStatus,
-                                                                      page, pageSize);
+                                                                      page, pageSize, null, true);
 
             assertThat(actual)
                     .isEqualTo(expected);
 
-            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-
-            verify(cardRepository).findAll(any(Specification.class), pageableCaptor.capture());
-
-            Pageable pageable = pageableCaptor.getValue();
+            Pageable pageable = captureSlicePageable();
             assertEquals(page - 1, pageable.getPageNumber());
             assertEquals(pageSize, pageable.getPageSize());
+            assertThat(pageable.getSort())
+                    .isEqualTo(Sort.by(Sort.Direction.ASC, "expirationDate", "cardId"));
         }
 
         @Test
-        void getAllCards_withoutFilters() {
+        @SuppressWarnings(value = "unchecked")
+        void getAllCards_withoutFilters_skipsCountQuery() {
             UserCardsResponseDto expected = UserCardsResponseDto.builder().build();
 
-            when(cardRepository.findAll(any(Specification.class), any(Pageable.class)))
-                    .thenReturn(cardsPage);
-            when(userCardsResponseMapper.toResponseDto(cardsPage.getTotalPages(), cardsPage.getContent()))
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(cardsSlice);
+            when(userCardsResponseMapper.toResponseDto(null, null, cardsSlice.getContent()))
+                    .thenReturn(expected);
+
+            UserCardsResponseDto actual = userServiceImpl.getAllCards(userId, null, null, null,
+                                                                      page, pageSize, null, false);
+
+            assertThat(actual)
+                    .isEqualTo(expected);
+            verify(cardRepository, never()).count(any(Specification.class));
+        }
+
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void getAllCards_withCursor_startsFromFirstRowAfterCursor() {
+            String cursor = new CardCursor(expirationDate, UUID.fromString(cardId)).encode();
+            Slice<Card> slice = new SliceImpl<>(List.of(cards.get(1)), PageRequest.of(0, 1), true);
+            String expectedNextCursor = CardCursor.of(cards.get(1)).encode();
+            UserCardsResponseDto expected = UserCardsResponseDto.builder().nextCursor(expectedNextCursor).build();
+
+            when(cardRepository.findBy(any(Specification.class), any(Function.class)))
+                    .thenReturn(slice);
+            when(userCardsResponseMapper.toResponseDto(null, expectedNextCursor, slice.getContent()))
                     .thenReturn(expected);
 
             UserCardsResponseDto actual = userServiceImpl.getAllCards(userId, null, null, null,
-                                                                      page, pageSize);
+                                                                      5, 1, cursor, false);
 
             assertThat(actual)
                     .isEqualTo(expected);
+
+            Pageable pageable = captureSlicePageable();
+            assertEquals(0, pageable.getPageNumber());
+            assertEquals(1, pageable.getPageSize());
+        }
+
+        @Test
+        void getAllCards_withInvalidCursor() {
+            assertThatThrownBy(() -> userServiceImpl.getAllCards(userId, null, null, null,
+                                                                 page, pageSize, "not-a-cursor", false))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Некорректный курсор пагинации");
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private Pageable captureSlicePageable() {
+            ArgumentCaptor<Function<JpaSpecificationExecutor.SpecificationFluentQuery<Card>, Slice<Card>>> queryCaptor =
+                    ArgumentCaptor.forClass(Function.class);
+            verify(cardRepository).findBy(any(Specification.class), queryCaptor.capture());
+
+            queryCaptor.getValue().apply(fluentQuery);
+
+            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            verify(fluentQuery).slice(pageableCaptor.capture());
+            return pageableCaptor.getValue();
         }
     }
 
@@ -150,6 +227,9 @@ class UserServiceImplTest {
 
             assertThat(actual)
                     .isEqualTo(expected);
+            assertThat(card.getCardStatus())
+                    .isEqualTo(CardStatus.BLOCKED);
+            verify(cardBalanceCache).evict(UUID.fromString(cardId));
         }
 
         @Test
@@ -176,27 +256,181 @@ class UserServiceImplTest {
     @Nested
     class Transfer {
         @Test
+        @SuppressWarnings(value = "unchecked")
         void transfer_whenEnoughMoney() {
             String expected = "Сумма успешно переведена между картами";
 
-            when(cardRepository.findById(any(UUID.class)))
-                    .thenReturn(Optional.of(card));
+            when(cardRepository.findAllByIdForUpdate(List.of(UUID.fromString(cardId), UUID.fromString(cardId2))))
+                    .thenReturn(cards);
 
-            String actual = userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5));
+            String actual = userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), null);
 
             assertThat(actual)
                     .isEqualTo(expected);
+            assertThat(cards.get(0).getBalance())
+                    .isEqualByComparingTo("451.55");
+            assertThat(cards.get(1).getBalance())
+                    .isEqualByComparingTo("505.0");
+            assertThat(cards)
+                    .extracting(Card::getCardStatus)
+                    .containsOnly(CardStatus.ACTIVE);
+            verify(cardBalanceCache).evict(List.of(UUID.fromString(cardId), UUID.fromString(cardId2)));
+            verify(cardRepository).setLocalLockTimeout("3s");
+
+            ArgumentCaptor<List<CardTransaction>> ledgerCaptor = ArgumentCaptor.forClass(List.class);
+            verify(cardTransactionRepository).saveAll(ledgerCaptor.capture());
+            assertThat(ledgerCaptor.getValue())
+                    .extracting(CardTransaction::getCardId, CardTransaction::getOperation,
+                                CardTransaction::getAmount, CardTransaction::getBalanceAfter)
+                    .containsExactly(
+                            tuple(UUID.fromString(cardId), CardTransactionType.TRANSFER_OUT,
+                                  BigDecimal.valueOf(-5), new BigDecimal("451.55")),
+                            tuple(UUID.fromString(cardId2), CardTransactionType.TRANSFER_IN,
+                                  BigDecimal.valueOf(5), new BigDecimal("505.0")));
+            assertThat(ledgerCaptor.getValue())
+                    .extracting(CardTransaction::getTransferId)
+                    .doesNotContainNull()
+                    .containsOnly(ledgerCaptor.getValue().get(0).getTransferId());
         }
 
         @Test
         void transfer_whenNotEnoughMoney() {
-            when(cardRepository.findById(any(UUID.class)))
-                    .thenReturn(Optional.of(card));
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
 
-            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(500000)))
+            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(500000), null))
                     .isInstanceOf(NotEnoughMoneyException.class)
                     .hasMessageContaining("На карте недостаточно средств для перевода");
         }
+
+        @Test
+        void transfer_whenCardBlocked() {
+            cards.get(1).setCardStatus(CardStatus.BLOCKED);
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
+
+            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), null))
+                    .isInstanceOf(CardNotActiveException.class);
+            assertThat(card.getBalance())
+                    .isEqualByComparingTo("456.55");
+        }
+
+        @Test
+        void transfer_whenCardExpiredButStillActive() {
+            card.setExpirationDate(LocalDate.now().minusDays(1));
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
+
+            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), null))
+                    .isInstanceOf(CardNotActiveException.class)
+                    .hasMessageContaining("Перевод возможен только между активными картами");
+        }
+
+        @Test
+        void transfer_whenCardNotFound() {
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(List.of(card));
+
+            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), null))
+                    .isInstanceOf(CardNotFoundException.class)
+                    .hasMessageContaining("Карта с таким id не найдена в базе данных");
+        }
+
+        @Test
+        void transfer_whenSameCard() {
+            assertThatThrownBy(() -> userServiceImpl.transfer(userId, cardId, cardId, BigDecimal.valueOf(5), null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Карта-отправитель и карта-получатель должны различаться");
+
+            verifyNoInteractions(cardRepository);
+        }
+
+        @Test
+        void transfer_withIdempotencyKey_storesResponse() {
+            String expected = "Сумма успешно переведена между картами";
+
+            when(transferIdempotencyStore.claim(eq(UUID.fromString(userId)), eq("key-1"), any()))
+                    .thenReturn(Optional.empty());
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
+
+            String actual = userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), "key-1");
+
+            assertThat(actual)
+                    .isEqualTo(expected);
+            assertThat(cards.get(0).getBalance())
+                    .isEqualByComparingTo("451.55");
+            verify(transferIdempotencyStore).complete(eq(UUID.fromString(userId)), eq("key-1"), any(), eq(expected));
+        }
+
+        @Test
+        void transfer_withReplayedIdempotencyKey_skipsCards() {
+            when(transferIdempotencyStore.claim(eq(UUID.fromString(userId)), eq("key-1"), any()))
+                    .thenReturn(Optional.of("Сумма успешно переведена между картами"));
+
+            String actual = userServiceImpl.transfer(userId, cardId, cardId2, BigDecimal.valueOf(5), "key-1");
+
+            assertThat(actual)
+                    .isEqualTo("Сумма успешно переведена между картами");
+            verify(cardRepository, never()).findAllByIdForUpdate(any());
+            verifyNoInteractions(cardBalanceCache);
+            verify(transferIdempotencyStore, never()).complete(any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    class TransferBatch {
+        @Test
+        @SuppressWarnings(value = "unchecked")
+        void transferBatch_reportsResultPerItem() {
+            String unknownCardId = UUID.randomUUID().toString();
+            List<TransferInfoRequestDto> transfers = List.of(
+                    new TransferInfoRequestDto(cardId, cardId2, BigDecimal.valueOf(6.55)),
+                    new TransferInfoRequestDto(cardId, cardId2, BigDecimal.valueOf(500000)),
+                    new TransferInfoRequestDto(cardId2, unknownCardId, BigDecimal.ONE),
+                    new TransferInfoRequestDto(cardId2, cardId, BigDecimal.valueOf(100)));
+
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
+
+            BatchTransferResponseDto actual = userServiceImpl.transferBatch(userId, transfers);
+
+            assertThat(actual.getSucceeded()).isEqualTo(2);
+            assertThat(actual.getFailed()).isEqualTo(2);
+            assertThat(actual.getResults())
+                    .extracting(TransferResultInfo::getSuccess)
+                    .containsExactly(true, false, false, true);
+            assertThat(actual.getResults().get(1).getError())
+                    .isEqualTo("На карте недостаточно средств для перевода");
+            assertThat(actual.getResults().get(2).getError())
+                    .isEqualTo("Карта с таким id не найдена в базе данных");
+            assertThat(cards.get(0).getBalance())
+                    .isEqualByComparingTo("550.00");
+            assertThat(cards.get(1).getBalance())
+                    .isEqualByComparingTo("406.55");
+
+            ArgumentCaptor<Collection<UUID>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(cardRepository).findAllByIdForUpdate(idsCaptor.capture());
+            assertThat(idsCaptor.getValue())
+                    .containsExactlyInAnyOrder(UUID.fromString(cardId), UUID.fromString(cardId2),
+                                               UUID.fromString(unknownCardId));
+        }
+
+        @Test
+        void transferBatch_whenCardNotBelongsToUser() {
+            when(cardRepository.findAllByIdForUpdate(any()))
+                    .thenReturn(cards);
+
+            BatchTransferResponseDto actual = userServiceImpl.transferBatch(
+                    UUID.randomUUID().toString(),
+                    List.of(new TransferInfoRequestDto(cardId, cardId2, BigDecimal.ONE)));
+
+            assertThat(actual.getFailed()).isEqualTo(1);
+            assertThat(actual.getResults().get(0).getError())
+                    .isEqualTo("Операция невозможна. Карта не принадлежит этому пользователю");
+            assertThat(card.getBalance())
+                    .isEqualByComparingTo("456.55");
+        }
     }
 
     @Nested
@@ -205,12 +439,22 @@ class UserServiceImplTest {
         void getBalance() {
             String expected = card.getBalance().toString();
 
-            when(cardRepository.findById(any(UUID.class)))
-                    .thenReturn(Optional.of(card));
+            when(cardBalanceCache.get(UUID.fromString(cardId)))
+                    .thenReturn(new CardBalanceView(UUID.fromString(userId), card.getBalance(), CardStatus.ACTIVE));
 
             String actual = userServiceImpl.getBalance(userId, cardId);
 
             assertThat(actual).isEqualTo(expected);
+            verifyNoInteractions(cardRepository);
+        }
+
+        @Test
+        void getBalance_whenCardNotBelongsToUser() {
+            when(cardBalanceCache.get(UUID.fromString(cardId)))
+                    .thenReturn(new CardBalanceView(UUID.randomUUID(), card.getBalance(), CardStatus.ACTIVE));
+
+            assertThatThrownBy(() -> userServiceImpl.getBalance(userId, cardId))
+                    .isInstanceOf(CardNotBelongsToUserException.class);
         }
     }
 }
\ No newline at end of file
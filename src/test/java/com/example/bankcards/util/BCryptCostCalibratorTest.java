@@ -0,0 +1,27 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCostCalibratorTest {
+    @Test
+    void calibrateReturnsFixedCost() {
+        assertThat(new BCryptCostCalibrator(11, Duration.ofNanos(1), 4, 6, 1).calibrate())
+                .isEqualTo(11);
+    }
+
+    @Test
+    void calibrateStaysAtMinCostWhenTargetIsUnreachable() {
+        assertThat(new BCryptCostCalibrator(0, Duration.ofNanos(1), 4, 6, 1).calibrate())
+                .isEqualTo(4);
+    }
+
+    @Test
+    void calibrateStopsAtMaxCost() {
+        assertThat(new BCryptCostCalibrator(0, Duration.ofMinutes(1), 4, 6, 1).calibrate())
+                .isEqualTo(6);
+    }
+}
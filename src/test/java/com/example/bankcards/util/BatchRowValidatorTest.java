@@ -0,0 +1,43 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.request.CardInfoRequestDto;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchRowValidatorTest {
+    private final BatchRowValidator batchRowValidator =
+            new BatchRowValidator(Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    void validateReturnsNullForValidRow() {
+        assertThat(batchRowValidator.validate(validCard()))
+                .isNull();
+    }
+
+    @Test
+    void validateReturnsFieldErrorsSortedByPath() {
+        CardInfoRequestDto card = validCard();
+        card.setCardNumber("1111 2222 3333 4445");
+        card.setBalance(BigDecimal.valueOf(-1));
+
+        assertThat(batchRowValidator.validate(card))
+                .isEqualTo("balance: Баланс не может быть отрицательным; " +
+                                   "cardNumber: Номер карты должен состоять из 16 цифр в блоках по 4 и проходить проверку по алгоритму Луна");
+    }
+
+    private static CardInfoRequestDto validCard() {
+        return CardInfoRequestDto.builder()
+                .cardNumber("1111 2222 3333 4444")
+                .userId(UUID.randomUUID().toString())
+                .expirationDate(LocalDate.now().plusYears(1))
+                .cardStatus("ACTIVE")
+                .balance(BigDecimal.TEN)
+                .build();
+    }
+}
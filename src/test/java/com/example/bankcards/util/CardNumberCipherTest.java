@@ -0,0 +1,75 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.CardEncryptionProperties;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardNumberCipherTest {
+    private static final String KEY_1 = "ZiPJ0s5ovHSO2saAhuJQQ/DNqGUsXl5iGOspxcktds8=";
+    private static final String KEY_2 = "q2m8Jt0Ck5m1yq0H7wR0b3m0Qm3m1V9cE3Hh0bqvJ1o=";
+
+    private final CardNumberCipher cipher = new CardNumberCipher(new CardEncryptionProperties(1, Map.of(1, KEY_1)));
+
+    @Nested
+    class EncryptAndDecrypt {
+        @Test
+        void decryptReturnsOriginalNumber() {
+            byte[] encrypted = cipher.encrypt("1111 2222 3333 4444");
+
+            assertThat(cipher.decrypt(encrypted))
+                    .isEqualTo("1111 2222 3333 4444");
+            assertThat(encrypted[0])
+                    .isEqualTo((byte) 1);
+        }
+
+        @Test
+        void encryptUsesRandomIv() {
+            assertThat(cipher.encrypt("1111 2222 3333 4444"))
+                    .isNotEqualTo(cipher.encrypt("1111 2222 3333 4444"));
+        }
+
+        @Test
+        void decryptWhenCiphertextTampered() {
+            byte[] encrypted = cipher.encrypt("1111 2222 3333 4444");
+            encrypted[encrypted.length - 1] ^= 1;
+
+            assertThatThrownBy(() -> cipher.decrypt(encrypted))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    class KeyRotation {
+        @Test
+        void newKeyVersionDecryptsNumbersEncryptedWithPreviousKey() {
+            CardNumberCipher rotated = new CardNumberCipher(new CardEncryptionProperties(2, Map.of(1, KEY_1, 2, KEY_2)));
+            byte[] encryptedWithOldKey = cipher.encrypt("1111 2222 3333 4444");
+
+            assertThat(rotated.decrypt(encryptedWithOldKey))
+                    .isEqualTo("1111 2222 3333 4444");
+            assertThat(rotated.encrypt("1111 2222 3333 4444")[0])
+                    .isEqualTo((byte) 2);
+        }
+
+        @Test
+        void decryptWhenKeyVersionUnknown() {
+            CardNumberCipher onlyNewKey = new CardNumberCipher(new CardEncryptionProperties(2, Map.of(2, KEY_2)));
+            byte[] encryptedWithOldKey = cipher.encrypt("1111 2222 3333 4444");
+
+            assertThatThrownBy(() -> onlyNewKey.decrypt(encryptedWithOldKey))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("версии 1");
+        }
+
+        @Test
+        void constructorWhenCurrentKeyMissing() {
+            assertThatThrownBy(() -> new CardNumberCipher(new CardEncryptionProperties(3, Map.of(1, KEY_1))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
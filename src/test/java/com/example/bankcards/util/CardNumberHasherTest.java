@@ -0,0 +1,34 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardNumberHasherTest {
+    private final CardNumberHasher cardNumberHasher = new CardNumberHasher("key");
+
+    @Test
+    void hashIsHmacSha256OfDigits() {
+        // То же значение, что и select encode(hmac('1111222233334444', 'key', 'sha256'), 'hex') в миграции.
+        String expected = "37abb11315cc774daf693ea11cf324766774f1123c939f7f6cadb98cc5c6d25d";
+
+        assertThat(HexFormat.of().formatHex(cardNumberHasher.hash("1111 2222 3333 4444")))
+                .isEqualTo(expected);
+        assertThat(HexFormat.of().formatHex(cardNumberHasher.hash("1111222233334444")))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void hashDiffersForDifferentNumbers() {
+        assertThat(cardNumberHasher.hash("1111 2222 3333 4444"))
+                .isNotEqualTo(cardNumberHasher.hash("1111 2222 3333 4445"));
+    }
+
+    @Test
+    void hashDependsOnKey() {
+        assertThat(cardNumberHasher.hash("1111 2222 3333 4444"))
+                .isNotEqualTo(new CardNumberHasher("other-key").hash("1111 2222 3333 4444"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JWTUtilsTest {
+    private static final String SECRET = "6d0846f9164e22e86be8e54a3d87c8673a17d042068abb348ba4a9fb89535621";
+
+    private JWTUtils jwtUtils;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = newJwtUtils(Duration.ofMinutes(10));
+        userDetails = new User("misha", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Nested
+    class GetVerifiedClaims {
+        @Test
+        void getVerifiedClaimsReturnsSubjectAndRole() {
+            String token = jwtUtils.generateToken(userDetails);
+
+            JWTUtils.TokenClaims actual = jwtUtils.getVerifiedClaims(token);
+
+            assertThat(actual.username())
+                    .isEqualTo("misha");
+            assertThat(actual.role())
+                    .isEqualTo("ROLE_USER");
+        }
+
+        @Test
+        void getVerifiedClaimsReturnsCachedClaimsForSameToken() {
+            String token = jwtUtils.generateToken(userDetails);
+
+            assertThat(jwtUtils.getVerifiedClaims(token))
+                    .isSameAs(jwtUtils.getVerifiedClaims(token));
+        }
+
+        @Test
+        void getVerifiedClaimsWhenSignatureIsWrong() {
+            String token = jwtUtils.generateToken(userDetails);
+            String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertThatThrownBy(() -> jwtUtils.getVerifiedClaims(tampered))
+                    .isInstanceOf(SignatureException.class);
+        }
+
+        @Test
+        void getVerifiedClaimsWhenTokenExpired() {
+            JWTUtils expiringJwtUtils = newJwtUtils(Duration.ofMillis(-1));
+            String token = expiringJwtUtils.generateToken(userDetails);
+
+            assertThatThrownBy(() -> expiringJwtUtils.getVerifiedClaims(token))
+                    .isInstanceOf(ExpiredJwtException.class);
+        }
+    }
+
+    private static JWTUtils newJwtUtils(Duration lifetime) {
+        JWTUtils utils = new JWTUtils();
+        ReflectionTestUtils.setField(utils, "secret", SECRET);
+        ReflectionTestUtils.setField(utils, "lifetime", lifetime);
+        ReflectionTestUtils.setField(utils, "claimsCacheMaxSize", 100L);
+        utils.init();
+        return utils;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PanTest {
+
+    @Nested
+    class Validation {
+        @Test
+        void isValidWhenFormattedAndLuhnCorrect() {
+            assertThat(Pan.isValid("1111 2222 3333 4444")).isTrue();
+            assertThat(Pan.isValid("1111-2222-3333-4444")).isTrue();
+            assertThat(Pan.isValid("1111222233334444")).isTrue();
+        }
+
+        @Test
+        void isValidWhenLuhnFails() {
+            assertThat(Pan.isWellFormed("1111 2222 3333 4445")).isTrue();
+            assertThat(Pan.isValid("1111 2222 3333 4445")).isFalse();
+        }
+
+        @Test
+        void isWellFormedWhenFormatWrong() {
+            assertThat(Pan.isWellFormed(null)).isFalse();
+            assertThat(Pan.isWellFormed("1234")).isFalse();
+            assertThat(Pan.isWellFormed("1111 2222 3333 44444")).isFalse();
+            assertThat(Pan.isWellFormed("111 12222 3333 4444")).isFalse();
+            assertThat(Pan.isWellFormed("1111  2222 3333 4444")).isFalse();
+            assertThat(Pan.isWellFormed(" 1111 2222 3333 4444")).isFalse();
+            assertThat(Pan.isWellFormed("1111 2222 3333 4444 ")).isFalse();
+            assertThat(Pan.isWellFormed("bla bla bla")).isFalse();
+        }
+    }
+
+    @Nested
+    class Formatting {
+        @Test
+        void normalize() {
+            assertThat(Pan.normalize("1111222233334444")).isEqualTo("1111 2222 3333 4444");
+            assertThat(Pan.normalize("1111-2222-3333-4444")).isEqualTo("1111 2222 3333 4444");
+            assertThat(Pan.normalize("1111 2222 3333 4444")).isEqualTo("1111 2222 3333 4444");
+        }
+
+        @Test
+        void normalizeWhenFormatWrong() {
+            assertThatThrownBy(() -> Pan.normalize("1234"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void maskAndLastFour() {
+            assertThat(Pan.mask("1111 2222 3333 4444")).isEqualTo("**** **** **** 4444");
+            assertThat(Pan.mask("4444")).isEqualTo("**** **** **** 4444");
+            assertThat(Pan.lastFour("1111-2222-3333-4321")).isEqualTo("4321");
+        }
+
+        @Test
+        void copyDigits() {
+            byte[] digits = new byte[19];
+
+            assertThat(Pan.copyDigits("1111 2222 3333 4444", digits)).isEqualTo(16);
+            assertThat(new String(digits, 0, 16)).isEqualTo("1111222233334444");
+        }
+    }
+
+    @Test
+    void wipe() {
+        char[] chars = "1111 2222 3333 4444".toCharArray();
+        StringBuilder builder = new StringBuilder("1111 2222 3333 4444");
+
+        Pan.wipe(chars);
+        Pan.wipe(builder);
+
+        assertThat(chars).containsOnly('\0');
+        assertThat(builder).isEmpty();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RehashingBCryptPasswordEncoderTest {
+    private final RehashingBCryptPasswordEncoder passwordEncoder = new RehashingBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncodingWhenStoredCostDiffers() {
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")))
+                .isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")))
+                .isTrue();
+    }
+
+    @Test
+    void upgradeEncodingWhenStoredCostIsCurrent() {
+        assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password")))
+                .isFalse();
+    }
+
+    @Test
+    void upgradeEncodingWhenNotBCryptHash() {
+        assertThat(passwordEncoder.upgradeEncoding("plain"))
+                .isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(null))
+                .isFalse();
+    }
+
+    @Test
+    void costOfSeededHash() {
+        assertThat(RehashingBCryptPasswordEncoder.costOf("$2a$12$ZGcK5u1sLd2dmYrtwqdPkejyAXnuJxl4C9dr7ZRz1ByN5RhMpWTl."))
+                .isEqualTo(12);
+    }
+}